@@ -0,0 +1,101 @@
+package com.fintech.expense_tracker;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationConfig;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Binary response formats for service-to-service consumers
+ *
+ * Same objects as the JSON responses, negotiated with the Accept header:
+ * - application/cbor              (RFC 8949, BigDecimal as a binary decimal fraction)
+ * - application/x-jackson-smile   (Jackson's binary JSON, repeated field names back-referenced)
+ *
+ * The converters take the CBOR and Smile places of the server's converter
+ * list, which come after JSON, so clients that send no Accept header
+ * (or * / *) keep getting JSON. Their mappers take the
+ * settings of the Boot-configured JSON mapper (spring.jackson.*, modules),
+ * so the three formats carry the same fields.
+ *
+ * Every response is sent with Vary: Accept. The ETags of the listings do
+ * not depend on the format, so without it a cache could revalidate a CBOR
+ * copy and hand it to a JSON client.
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Override
+	public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+		// Replace the defaults Spring registers for a dataformat on the classpath (one of each)
+		builder.withCborConverter(new JacksonCborHttpMessageConverter(
+				configuredLike(objectMapper, CBORMapper.builder()).build()));
+		builder.withSmileConverter(new JacksonSmileHttpMessageConverter(
+				configuredLike(objectMapper, SmileMapper.builder()).build()));
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new HandlerInterceptor() {
+			@Override
+			public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+				// Before the handler, so 304 responses carry it too
+				response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Copy the JSON mapper's modules and settings onto a mapper builder of another format
+	 *
+	 * @param source Boot-configured JSON mapper
+	 * @param builder Builder of the binary format's mapper
+	 * @return The same builder
+	 */
+	static <M extends ObjectMapper, B extends MapperBuilder<M, B>> B configuredLike(ObjectMapper source, B builder) {
+		SerializationConfig serialization = source.serializationConfig();
+		DeserializationConfig deserialization = source.deserializationConfig();
+
+		builder.addModules(source.registeredModules());
+		for (MapperFeature feature : MapperFeature.values()) {
+			builder.configure(feature, serialization.isEnabled(feature));
+		}
+		for (SerializationFeature feature : SerializationFeature.values()) {
+			builder.configure(feature, serialization.isEnabled(feature));
+		}
+		for (DeserializationFeature feature : DeserializationFeature.values()) {
+			builder.configure(feature, deserialization.isEnabled(feature));
+		}
+		for (DateTimeFeature feature : DateTimeFeature.values()) {
+			builder.configure(feature, serialization.isEnabled(feature));
+		}
+		builder.propertyNamingStrategy(serialization.getPropertyNamingStrategy());
+		builder.changeDefaultPropertyInclusion(inclusion -> serialization.getDefaultPropertyInclusion());
+		if (serialization.hasExplicitTimeZone()) {
+			builder.defaultTimeZone(serialization.getTimeZone());
+		}
+		builder.defaultLocale(serialization.getLocale());
+		return builder;
+	}
+}
@@ -1,8 +1,15 @@
 package com.fintech.expense_tracker;
+import com.fintech.expense_tracker.account.AccountBalance;
+import com.fintech.expense_tracker.account.AccountBalanceService;
+import com.fintech.expense_tracker.account.BalanceAsOf;
+import com.fintech.expense_tracker.account.BalanceCheckpointService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PathVariable;
-import java.math.BigDecimal;
+import org.springframework.web.bind.annotation.RequestParam;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -17,6 +24,13 @@ import java.util.Map;
 
 @RestController
 public class HelloController {
+	
+	@Autowired
+	private AccountBalanceService accountBalanceService;
+	
+	@Autowired
+	private BalanceCheckpointService balanceCheckpointService;
+	
 	/**
      * Simple hello endpoint
      * 
@@ -37,32 +51,45 @@ public class HelloController {
 	 * Method: GET
 	 * Response: JSON with account info
 	 * 
+	 * CHANGED: Real balance from account_balance (one primary key read)
+	 * instead of a hard-coded map. Unknown accounts are a 404.
+	 * 
+	 * CHANGED: Optional asOf (e.g. ?asOf=2026-03-31T23:59:00) returns the
+	 * balance at that time: nearest checkpoint + ledger postings since.
+	 * A refund is posted when it happens, so balances before it still
+	 * include the transaction - what this endpoint showed at that time.
+	 * 
 	 * @param accountId Account number from URL
+	 * @param asOf Point in time (optional, default = now)
 	 * @return Map converted to JSON automatically
 	 */
 	
 	@GetMapping("/balance/{accountId}")
-	public Map<String, Object> getBalance(@PathVariable String accountId) {
-		//Simulated data(next week: from database)
-		Map<String, String> accounts = new HashMap<>();
-		accounts.put("001", "5000.00");
-		accounts.put("002", "3000.00");
-		accounts.put("003", "7500.00");
-		
-		//Create response
-		Map<String, Object> response = new HashMap<>();
-		
-		if (accounts.containsKey(accountId)) {
+	public Map<String, Object> getBalance(
+			@PathVariable String accountId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+		if (asOf != null) {
+			BalanceAsOf balance = balanceCheckpointService.getBalanceAsOf(accountId, asOf);
+			
+			Map<String, Object> response = new HashMap<>();
 			response.put("accountId", accountId);
-			response.put("balance", accounts.get(accountId));
+			response.put("balance", balance.balance());
 			response.put("currency", "ZAR");
+			response.put("asOf", balance.asOf());
+			response.put("checkpoint", balance.checkpointAsOf());
 			response.put("status", "success");
-		} else {
-			response.put("accountId", accountId);
-			response.put("error", "Account not found!");
-			response.put("status", "failed");
+			return response;
 		}
 		
+		AccountBalance balance = accountBalanceService.getBalance(accountId);
+		
+		//Create response
+		Map<String, Object> response = new HashMap<>();
+		response.put("accountId", accountId);
+		response.put("balance", balance.getBalance());
+		response.put("currency", "ZAR");
+		response.put("updatedAt", balance.getUpdatedAt());
+		response.put("status", "success");
 		return response;
 	}
 	
@@ -0,0 +1,332 @@
+package com.fintech.expense_tracker;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+
+/**
+ * RecentTransactions - newest transactions of hot accounts, in memory
+ *
+ * How it works:
+ * - Each buffered account has a ring of its newest summaries (at most
+ *   expense-tracker.recent.per-account), newest first, in the same order
+ *   as the account queries (timestamp, then transactionId, descending)
+ * - A read of "newest N for account X" is served from the ring; a miss
+ *   loads the newest per-account rows from the database and keeps them
+ * - TransactionService hands over every created, updated or deleted
+ *   transaction; buffered rings are updated once the database
+ *   transaction commits
+ * - Rings start at the size of what was loaded and grow (doubling) up to
+ *   per-account as writes arrive, so quiet accounts stay small
+ * - All rings together allocate at most expense-tracker.recent.max-entries
+ *   slots - allocated, not filled, so the cap bounds the memory actually
+ *   reserved (a filled slot is roughly 250 bytes plus the description);
+ *   above that the least recently read accounts are dropped. Writes do not
+ *   count as reads.
+ *
+ * Rings are per instance. Writes made through another instance are seen
+ * once a ring is older than expense-tracker.recent.max-age-ms and reloaded.
+ */
+
+@Component
+public class RecentTransactions {
+
+	// Same order as the account queries: ORDER BY timestamp DESC, transaction_id DESC
+	static final Comparator<TransactionSummary> NEWEST_FIRST = Comparator
+			.comparing(TransactionSummary::timestamp)
+			.thenComparing(TransactionSummary::transactionId)
+			.reversed();
+
+	private static final int VERSION_SLOTS = 4096;
+
+	// Smallest ring array, so a quiet account does not regrow on every write
+	private static final int MIN_SLOTS = 8;
+
+	@Value("${expense-tracker.recent.per-account:128}")
+	private int perAccount;
+
+	@Value("${expense-tracker.recent.max-entries:200000}")
+	private int maxEntries;
+
+	@Value("${expense-tracker.recent.max-age-ms:30000}")
+	private long maxAgeMs;
+
+	// Read order: iteration starts at the least recently read account. Insertion-ordered,
+	// and only get() moves an account to the end, so write hooks can look rings up
+	// without refreshing them (guarded by this)
+	private final LinkedHashMap<String, Ring> rings = new LinkedHashMap<>();
+
+	// Array slots allocated by all rings, filled or not (guarded by this)
+	private int slotsHeld;
+
+	/**
+	 * Write counters by account hash: a load that raced a commit for the
+	 * same account is returned but not kept, since it may miss that write
+	 */
+	private final AtomicLongArray versions = new AtomicLongArray(VERSION_SLOTS);
+
+	/**
+	 * Newest transactions of an account
+	 *
+	 * @param account Account ID
+	 * @param limit Number of transactions
+	 * @param load Reads the newest n summaries of the account from the database
+	 * @return At most limit summaries, newest first
+	 */
+	public List<TransactionSummary> get(String account, int limit, IntFunction<List<TransactionSummary>> load) {
+		if (limit > perAccount) {
+			return load.apply(limit);
+		}
+
+		long now = System.nanoTime();
+		synchronized (this) {
+			Ring ring = rings.get(account);
+			if (ring != null && ring.fresh(now) && ring.covers(limit)) {
+				// Mark as most recently read
+				rings.remove(account);
+				rings.put(account, ring);
+				return List.copyOf(ring.newest(limit));
+			}
+		}
+
+		// Version is read before the data, so a commit racing the load is detected
+		long version = versions.get(slot(account));
+		List<TransactionSummary> loaded = load.apply(perAccount);
+		keep(account, loaded, version, now);
+		return List.copyOf(loaded.subList(0, Math.min(limit, loaded.size())));
+	}
+
+	private synchronized void keep(String account, List<TransactionSummary> loaded, long version, long loadedAt) {
+		if (versions.get(slot(account)) != version) {
+			return;
+		}
+		Ring ring = new Ring(loaded, loaded.size() < perAccount, loadedAt);
+		Ring previous = rings.remove(account);
+		rings.put(account, ring);
+		slotsHeld += ring.slots.length - (previous == null ? 0 : previous.slots.length);
+		evict(ring);
+	}
+
+	/**
+	 * Drop the least recently read rings until the cap holds again
+	 *
+	 * @param keep Ring that is never dropped (the one just loaded or grown)
+	 */
+	private void evict(Ring keep) {
+		Iterator<Map.Entry<String, Ring>> eldest = rings.entrySet().iterator();
+		while (slotsHeld > maxEntries && eldest.hasNext()) {
+			Map.Entry<String, Ring> entry = eldest.next();
+			if (entry.getValue() != keep) {
+				slotsHeld -= entry.getValue().slots.length;
+				eldest.remove();
+			}
+		}
+	}
+
+	// ==================== WRITE HOOKS ====================
+
+	/**
+	 * Add created transactions, or replace updated ones, in the rings of
+	 * their accounts once the current database transaction commits
+	 */
+	public void recordSaved(Collection<Transaction> transactions) {
+		List<TransactionSummary> summaries = transactions.stream().map(RecentTransactions::summary).toList();
+		afterCommit(() -> {
+			for (TransactionSummary summary : summaries) {
+				bump(summary);
+				synchronized (this) {
+					add(summary.fromAccount(), summary);
+					add(summary.toAccount(), summary);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Take a deleted transaction out of its accounts' rings once the
+	 * current database transaction commits
+	 */
+	public void recordDeleted(Transaction transaction) {
+		TransactionSummary summary = summary(transaction);
+		afterCommit(() -> {
+			bump(summary);
+			synchronized (this) {
+				remove(summary.fromAccount(), summary.transactionId());
+				remove(summary.toAccount(), summary.transactionId());
+			}
+		});
+	}
+
+	private void add(String account, TransactionSummary summary) {
+		Ring ring = rings.get(account);
+		if (ring != null) {
+			int before = ring.slots.length;
+			ring.add(summary);
+			if (ring.slots.length != before) {
+				slotsHeld += ring.slots.length - before;
+				evict(ring);
+			}
+		}
+	}
+
+	private void remove(String account, String transactionId) {
+		Ring ring = rings.get(account);
+		if (ring != null) {
+			ring.remove(transactionId);
+		}
+	}
+
+	private void bump(TransactionSummary summary) {
+		versions.incrementAndGet(slot(summary.fromAccount()));
+		versions.incrementAndGet(slot(summary.toAccount()));
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	private static TransactionSummary summary(Transaction transaction) {
+		return new TransactionSummary(transaction.getTransactionId(), transaction.getFromAccount(),
+				transaction.getToAccount(), transaction.getAmount(), transaction.getCurrency(),
+				transaction.getStatus(), transaction.getTimestamp(), transaction.getDescription());
+	}
+
+	private static int slot(String account) {
+		return Math.floorMod(account.hashCode(), VERSION_SLOTS);
+	}
+
+	/**
+	 * Newest summaries of one account in an array, newest first starting
+	 * at index 'newest' and wrapping around
+	 *
+	 * Holds the account's newest 'size' transactions; when complete, those
+	 * are all of the account's transactions. The array grows up to
+	 * perAccount slots and is never shrunk.
+	 */
+	private final class Ring {
+
+		TransactionSummary[] slots;
+		final long loadedAt;
+		boolean complete;
+		int newest;
+		int size;
+
+		Ring(List<TransactionSummary> loaded, boolean complete, long loadedAt) {
+			this.slots = new TransactionSummary[Math.min(perAccount, Math.max(MIN_SLOTS, loaded.size()))];
+			this.complete = complete;
+			this.loadedAt = loadedAt;
+			fill(loaded);
+		}
+
+		boolean fresh(long now) {
+			return maxAgeMs <= 0 || now - loadedAt <= TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+		}
+
+		boolean covers(int limit) {
+			return complete || size >= limit;
+		}
+
+		TransactionSummary get(int index) {
+			return slots[(newest + index) % slots.length];
+		}
+
+		List<TransactionSummary> newest(int limit) {
+			List<TransactionSummary> result = new ArrayList<>(Math.min(limit, size));
+			for (int i = 0; i < size && i < limit; i++) {
+				result.add(get(i));
+			}
+			return result;
+		}
+
+		/**
+		 * Insert in order, replacing an older copy of the same transaction
+		 */
+		void add(TransactionSummary summary) {
+			boolean replaced = removeId(summary.transactionId());
+
+			// Usual case: newer than everything held and no need to grow,
+			// overwrite the oldest slot if full
+			boolean newer = size == 0 || NEWEST_FIRST.compare(summary, get(0)) < 0;
+			if (!replaced && newer && (size < slots.length || slots.length == perAccount)) {
+				if (size == slots.length) {
+					complete = false;
+				}
+				newest = Math.floorMod(newest - 1, slots.length);
+				slots[newest] = summary;
+				size = Math.min(size + 1, slots.length);
+				return;
+			}
+
+			List<TransactionSummary> ordered = newest(size);
+			int position = 0;
+			while (position < ordered.size() && NEWEST_FIRST.compare(ordered.get(position), summary) < 0) {
+				position++;
+			}
+			// Older than everything held: only known to belong here when nothing older exists
+			if (position == ordered.size() && (!complete || size == perAccount)) {
+				complete = false;
+				return;
+			}
+			ordered.add(position, summary);
+			if (ordered.size() > perAccount) {
+				complete = false;
+				ordered.remove(perAccount);
+			}
+			fill(ordered);
+		}
+
+		void remove(String transactionId) {
+			removeId(transactionId);
+		}
+
+		private boolean removeId(String transactionId) {
+			for (int i = 0; i < size; i++) {
+				if (get(i).transactionId().equals(transactionId)) {
+					List<TransactionSummary> ordered = newest(size);
+					ordered.remove(i);
+					fill(ordered);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Store in order from index 0, doubling the array (up to perAccount) if it is too small
+		 */
+		private void fill(List<TransactionSummary> ordered) {
+			if (ordered.size() > slots.length) {
+				slots = new TransactionSummary[Math.min(perAccount, Math.max(ordered.size(), slots.length * 2))];
+			} else {
+				Arrays.fill(slots, null);
+			}
+			for (int i = 0; i < ordered.size(); i++) {
+				slots[i] = ordered.get(i);
+			}
+			newest = 0;
+			size = ordered.size();
+		}
+	}
+}
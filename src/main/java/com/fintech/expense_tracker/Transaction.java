@@ -1,7 +1,9 @@
 package com.fintech.expense_tracker;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.springframework.data.domain.Persistable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -26,7 +28,78 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name="transactions")
-public class Transaction {
+@SqlResultSetMapping(name = "TransactionSummary", classes = @ConstructorResult(
+		targetClass = TransactionSummary.class,
+		columns = {
+				@ColumnResult(name = "transaction_id", type = String.class),
+				@ColumnResult(name = "from_account", type = String.class),
+				@ColumnResult(name = "to_account", type = String.class),
+				@ColumnResult(name = "amount", type = BigDecimal.class),
+				@ColumnResult(name = "currency", type = String.class),
+				@ColumnResult(name = "status", type = String.class),
+				@ColumnResult(name = "timestamp", type = LocalDateTime.class),
+				@ColumnResult(name = "description", type = String.class)
+		}))
+@SqlResultSetMapping(name = "TransactionSearchResult", classes = @ConstructorResult(
+		targetClass = TransactionSearchResult.class,
+		columns = {
+				@ColumnResult(name = "transaction_id", type = String.class),
+				@ColumnResult(name = "from_account", type = String.class),
+				@ColumnResult(name = "to_account", type = String.class),
+				@ColumnResult(name = "amount", type = BigDecimal.class),
+				@ColumnResult(name = "currency", type = String.class),
+				@ColumnResult(name = "status", type = String.class),
+				@ColumnResult(name = "timestamp", type = LocalDateTime.class),
+				@ColumnResult(name = "description", type = String.class),
+				@ColumnResult(name = "rank", type = Float.class)
+		}))
+@NamedNativeQuery(name = "Transaction.findSummariesByAccount", resultSetMapping = "TransactionSummary", query = """
+		SELECT t.transaction_id, t.from_account, t.to_account, t.amount, t.currency, t.status, t.timestamp,
+		       t.description
+		FROM ledger_entries l
+		JOIN transactions t ON t.transaction_id = l.transaction_id
+		WHERE l.account = :account
+		ORDER BY l.timestamp DESC, l.transaction_id DESC
+		""")
+@NamedNativeQuery(name = "Transaction.findSummariesByAccountAndStatus", resultSetMapping = "TransactionSummary", query = """
+		SELECT t.transaction_id, t.from_account, t.to_account, t.amount, t.currency, t.status, t.timestamp,
+		       t.description
+		FROM ledger_entries l
+		JOIN transactions t ON t.transaction_id = l.transaction_id
+		WHERE l.account = :account AND t.status = :status
+		ORDER BY l.timestamp DESC, l.transaction_id DESC
+		""")
+// Full-text search on the generated description_tsv column (GIN index idx_description_tsv,
+// see db/migrations/001_description_search.sql - the text search configuration must stay
+// 'english' in both places)
+@NamedNativeQuery(name = "Transaction.searchByDescription", resultSetMapping = "TransactionSearchResult", query = """
+		SELECT t.transaction_id, t.from_account, t.to_account, t.amount, t.currency, t.status, t.timestamp,
+		       t.description, ts_rank_cd(t.description_tsv, q.query) AS rank
+		FROM transactions t, websearch_to_tsquery('english', :query) AS q(query)
+		WHERE t.description_tsv @@ q.query
+		ORDER BY rank DESC, t.transaction_id DESC
+		""")
+@NamedNativeQuery(name = "Transaction.searchByDescriptionAfter", resultSetMapping = "TransactionSearchResult", query = """
+		SELECT t.transaction_id, t.from_account, t.to_account, t.amount, t.currency, t.status, t.timestamp,
+		       t.description, ts_rank_cd(t.description_tsv, q.query) AS rank
+		FROM transactions t, websearch_to_tsquery('english', :query) AS q(query)
+		WHERE t.description_tsv @@ q.query
+		  AND (ts_rank_cd(t.description_tsv, q.query), t.transaction_id) < (CAST(:rank AS REAL), :transactionId)
+		ORDER BY rank DESC, t.transaction_id DESC
+		""")
+// Fuzzy search: '<%' is true when word_similarity(:query, description) reaches
+// pg_trgm.word_similarity_threshold; '<<->' is 1 - word_similarity. Both are served by the
+// GiST index idx_description_trgm_gist (see db/migrations/002_description_similarity.sql),
+// which returns matches nearest first, so a LIMIT stops the scan early. Equal distances
+// come back in index order (no tie-breaker, which would need a sort of every match).
+@NamedNativeQuery(name = "Transaction.searchByDescriptionSimilarity", resultSetMapping = "TransactionSearchResult", query = """
+		SELECT t.transaction_id, t.from_account, t.to_account, t.amount, t.currency, t.status, t.timestamp,
+		       t.description, word_similarity(:query, t.description) AS rank
+		FROM transactions t
+		WHERE :query <% t.description
+		ORDER BY :query <<-> t.description
+		""")
+public class Transaction implements Persistable<String> {
 	
 	 /**
      * Primary Key - unique identifier for each transaction
@@ -67,6 +140,15 @@ public class Transaction {
 	@Size(max = 200, message = "Description cannot exceed 200 characters")
 	private String description;
 	
+	/**
+	 * Not a column - tells Spring Data whether save() must INSERT or MERGE
+	 * 
+	 * The ID is assigned by us (not by the database), so without this flag
+	 * save()/saveAll() would run one SELECT per entity before inserting it
+	 */
+	@Transient
+	private boolean isNew = true;
+	
 	/**
 	 * Transaction model with validation
 	 *
@@ -110,6 +192,28 @@ public class Transaction {
 		}
 	}
 	
+	/**
+     * Lifecycle callback - entity now exists in the database
+     * (loaded or just inserted), so later saves are updates
+     */
+	@PostLoad
+	@PostPersist
+	protected void markNotNew() {
+		isNew = false;
+	}
+	
+	@Override
+	@JsonIgnore
+	public String getId() {
+		return transactionId;
+	}
+	
+	@Override
+	@JsonIgnore
+	public boolean isNew() {
+		return isNew;
+	}
+	
 	// Getters and Setters (required for JSON conversion)
 	
 	public String getTransactionId() {
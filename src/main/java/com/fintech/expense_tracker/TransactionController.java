@@ -1,18 +1,33 @@
 package com.fintech.expense_tracker;
 
 import com.fintech.expense_tracker.exceptions.*;
+import com.fintech.expense_tracker.export.TransactionArrowExporter;
+import com.fintech.expense_tracker.stats.AmountSketchService;
+import com.fintech.expense_tracker.stats.RollupGranularity;
+import com.fintech.expense_tracker.stats.StatisticsCache;
+import com.fintech.expense_tracker.stats.StatisticsQuery;
+import com.fintech.expense_tracker.stats.TransactionRollupService;
+import com.fintech.expense_tracker.stats.TransactionStatisticsService;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Transaction Controller - handles transaction operations
@@ -41,6 +56,27 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
     
+    @Autowired
+    private TransactionStatisticsService transactionStatisticsService;
+    
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+    
+    @Autowired
+    private AmountSketchService amountSketchService;
+    
+    @Autowired
+    private StatisticsCache statisticsCache;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private TransactionVersions transactionVersions;
+    
+    @Autowired
+    private TransactionArrowExporter transactionArrowExporter;
+    
     
     /**
      * Create new transaction (POST)
@@ -82,65 +118,169 @@ public class TransactionController {
     }
     
     /**
-     * Get transactions with optional filtering
+     * Get transactions with optional filtering, one page at a time
      *
      * URL: GET /api/transactions
      * URL: GET /api/transactions?account=001
      * URL: GET /api/transactions?status=completed
-     * URL: GET /api/transactions?account=001&status=completed
+     * URL: GET /api/transactions?account=001&status=completed&size=50
+     * URL: GET /api/transactions?cursor=TkVYVHwyMDI2LTAx...
+     * URL: GET /api/transactions?fields=transactionId,amount,timestamp
      *
      * @RequestParam extracts query parameters from URL
      * required=false means parameter is optional
      * 
+     * CHANGED: Cursor pagination instead of returning every row.
+     * Sorted by timestamp, newest first (transactionId breaks ties).
+     * Follow nextCursor for older and prevCursor for newer transactions;
+     * keep the same account/status filters when following a cursor.
+     * 
+     * Conditional GET: the weak ETag follows the account's modification
+     * version (or the global one without account). A matching
+     * If-None-Match gets 304 before any database query.
      * 
      *  @param account Filter by account (optional)
 	 *  @param status Filter by status (optional)
-	 *  @param page Page number (default 0)
+	 *  @param cursor nextCursor/prevCursor of a previous page (optional)
 	 *  @param size Page size (default 20, max 100)
-	 *  @param sort Sort field and direction (default timestamp,desc)
+	 *  @param fields Comma-separated fields to return (optional, see TransactionField)
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllTransactions(
     	@RequestParam(required = false) String account,
-    	@RequestParam(required = false) String status) {
+    	@RequestParam(required = false) String status,
+    	@RequestParam(required = false) String cursor,
+    	@RequestParam(defaultValue = "20") int size,
+    	@RequestParam(required = false) String fields,
+    	WebRequest webRequest) {
     	
-    	List<Transaction> transactions;
+    	if (size < 1 || size > 100) {
+    		throw new InvalidOperationException("Size must be between 1 and 100");
+    	}
     	
-    	// CHANGED: Use repository methods instead of stream filtering
-    	if (account != null && status != null) {
-    		// Filter by both account and status	
-    		transactions = transactionService.getTransactionsByAccountAndStatus(account, status);
-    	} else if (account != null) {
-    		// Filter by account only
-    		transactions = transactionService.getTransactionsByAccount(account);
-    	} else if (status != null) {
-    		// Filter by status only
-    		transactions = transactionService.getTransactionsByStatus(status);
-    	} else {
-    		// No filter - get all
-    		transactions = transactionService.getAllTransactions();
+    	// Version is read before the data, so a write racing this request changes the next ETag
+    	String etag = account != null
+    			? transactionVersions.accountEtag(account)
+    			: transactionVersions.globalEtag();
+    	if (webRequest.checkNotModified(etag)) {
+    		return null;
     	}
     	
+    	TransactionPage<?> page = fields == null
+    			? transactionService.getTransactionPage(account, status, cursor, size)
+    			: transactionService.getTransactionPage(account, status, cursor, size, TransactionField.parse(fields));
+    	
     	// Build response
     	Map<String, Object> response = new HashMap<>();
-    	response.put("count", transactions.size());
-    	response.put("transactions", transactions);
+    	response.put("count", page.transactions().size());
+    	response.put("size", size);
+    	response.put("transactions", page.transactions());
+    	response.put("nextCursor", page.nextCursor());
+    	response.put("prevCursor", page.prevCursor());
         
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Stream transactions as NDJSON (one JSON object per line)
+     *
+     * URL: GET /api/transactions
+     * Header: Accept: application/x-ndjson
+     *
+     * Use case: Reconciliation jobs pulling millions of rows.
+     * Same filters as the paginated listing, but every matching row is
+     * written as it is read from the database - nothing is collected in
+     * memory, so heap use does not grow with the row count.
+     * Rows are not sorted.
+     *
+     * @param account Filter by account (optional)
+     * @param status Filter by status (optional)
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTransactions(
+    	@RequestParam(required = false) String account,
+    	@RequestParam(required = false) String status) {
+    	
+    	ObjectWriter writer = objectMapper.writerFor(Transaction.class);
+    	
+    	StreamingResponseBody body = out -> {
+    		BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+    		try {
+    			transactionService.streamTransactions(account, status, transaction -> {
+    				try {
+    					buffered.write(writer.writeValueAsBytes(transaction));
+    					buffered.write('\n');
+    				} catch (IOException e) {
+    					throw new UncheckedIOException(e);
+    				}
+    			});
+    		} catch (UncheckedIOException e) {
+    			// Client went away - the service has already closed the database cursor
+    			throw e.getCause();
+    		}
+    		buffered.flush();
+    	};
+    	
+    	return ResponseEntity.ok()
+    			.contentType(MediaType.APPLICATION_NDJSON)
+    			.body(body);
+    }
+    
+    /**
+     * GET - Columnar export (Apache Arrow IPC stream)
+     *
+     * URL: GET /api/transactions/export
+     * URL: GET /api/transactions/export?from=2026-01-01T00:00:00&to=2026-01-02T00:00:00
+     *
+     * Use case: Nightly analytics load. Rows are read through a JDBC
+     * cursor and written in row groups of 65,536 - no entities and no
+     * full result in memory. Oldest first.
+     *
+     * @param from Earliest timestamp, inclusive (optional, ISO date-time)
+     * @param to Latest timestamp, exclusive (optional, ISO date-time)
+     */
+    @GetMapping(value = "/export", produces = TransactionArrowExporter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+    		@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+    		@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+    	
+    	if (from != null && to != null && !from.isBefore(to)) {
+    		throw new InvalidOperationException("'from' must be before 'to'");
+    	}
+    	
+    	StreamingResponseBody body = out -> transactionArrowExporter.export(from, to, out);
+    	return ResponseEntity.ok()
+    			.contentType(MediaType.parseMediaType(TransactionArrowExporter.MEDIA_TYPE))
+    			.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.arrows\"")
+    			.body(body);
+    }
+    
     /**
      * Get transaction by ID (GET)
      * 
      * URL: http://localhost:8080/api/transactions/TX0001
+     * URL: http://localhost:8080/api/transactions/TX0001?fields=amount,status
      * Method: GET
      * 
      * @param id Transaction ID
+     * @param fields Comma-separated fields to return (optional)
      * @return Transaction details or error
+     * 
+     * Conditional GET on the global modification version
+     * (304 without a database query while nothing has changed)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Transaction> getTransactionById(@PathVariable String id) {
+    public ResponseEntity<?> getTransactionById(
+    		@PathVariable String id,
+    		@RequestParam(required = false) String fields,
+    		WebRequest webRequest) {
 
+    	if (webRequest.checkNotModified(transactionVersions.globalEtag())) {
+    		return null;
+    	}
+    	if (fields != null) {
+    		return ResponseEntity.ok(transactionService.getTransactionById(id, TransactionField.parse(fields)));
+    	}
     	Transaction transaction = transactionService.getTransactionById(id);
     	return ResponseEntity.ok(transaction);
     }
@@ -180,61 +320,96 @@ public class TransactionController {
      * GET - Transaction statistics
      * 
      * URL: GET /api/transactions/stats
+     * URL: GET /api/transactions/stats?from=2026-01-01T00:00:00&to=2026-02-01T00:00:00
+     * URL: GET /api/transactions/stats?account=001
+     * URL: GET /api/transactions/stats?from=2026-01-01T00:00:00&to=2027-01-01T00:00:00&granularity=day
      * 
      * Returns:
      * - Total count
      * - Total amount transferred
      * - Average transaction amount
      * - Breakdown by status
+     * - Amount percentiles p50/p90/p99 (from quantile sketches, not per account)
+     * 
+     * CHANGED: Read from the statistics aggregate (one row per status)
+     * instead of loading every transaction. With filters, the aggregation
+     * runs inside PostgreSQL. With granularity (hour/day), the range is
+     * answered from rollup buckets and a per-bucket series is included.
+     * Responses are cached per parameter set for
+     * expense-tracker.stats.cache.max-stale-ms, on every instance.
+     * 
+     * @param from Earliest timestamp, inclusive (optional, ISO date-time)
+     * @param to Latest timestamp, exclusive (optional, ISO date-time)
+     * @param account Sender or receiver account (optional)
+     * @param granularity Bucket size: hour or day (optional, needs from/to)
      */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getStatistics() {
+    public ResponseEntity<Map<String, Object>> getStatistics(
+    		@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+    		@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+    		@RequestParam(required = false) String account,
+    		@RequestParam(required = false) String granularity) {
+    	
+    	if (from != null && to != null && !from.isBefore(to)) {
+    		throw new InvalidOperationException("'from' must be before 'to'");
+    	}
     	
-    	// CHANGED: Get all from database
-        List<Transaction> transactions = transactionService.getAllTransactions();
+    	StatisticsQuery query = new StatisticsQuery(from, to, account, granularity);
+    	Map<String, Object> response = statisticsCache.get(query, () -> computeStatistics(from, to, account, granularity));
+        return ResponseEntity.ok(response);
+    }
+    
+    private Map<String, Object> computeStatistics(LocalDateTime from, LocalDateTime to,
+    		String account, String granularity) {
     	
-    	if (transactions.isEmpty()) {
-    		Map<String, Object> response = new HashMap<>();
-    		response.put("totalTransactions", 0);
-            response.put("totalAmount", BigDecimal.ZERO);
-            response.put("averageAmount", BigDecimal.ZERO);
-            response.put("statusBreakdown", new HashMap<>());
-            return ResponseEntity.ok(response);
+    	Map<String, Object> response;
+    	if (granularity != null) {
+    		// Time range - merge hourly/daily rollup buckets
+    		if (account != null) {
+    			throw new InvalidOperationException("Rollups are not kept per account - remove 'granularity'");
+    		}
+    		response = transactionRollupService.getStatistics(from, to, RollupGranularity.fromParam(granularity));
+    	} else if (from == null && to == null && account == null) {
+    		// No filter - answer from the running aggregate
+    		response = transactionStatisticsService.getStatistics();
+    	} else {
+    		response = transactionStatisticsService.getStatistics(from, to, account);
     	}
     	
-    	// Total count
-    	int totalCount = transactions.size();
+    	// Percentiles come from sketches kept globally, per status and per day
+    	if (account == null) {
+    		response.put("amountPercentiles", amountSketchService.getPercentiles(from, to));
+    	}
+    	return response;
+    }
+    
+    /**
+     * GET - Statistics cache counters
+     * 
+     * URL: GET /api/transactions/stats/cache
+     * 
+     * Returns hits (current version), staleHits (older version within
+     * max-stale-ms), sharedWaits (joined a running recomputation),
+     * misses, recomputes and failures since startup
+     */
+    @GetMapping("/stats/cache")
+    public ResponseEntity<Map<String, Object>> getStatisticsCacheMetrics() {
     	
-    	// Total amount
-        BigDecimal totalAmount = transactions.stream()
-            .map(Transaction::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Average amount
-        BigDecimal averageAmount = totalAmount.divide(
-            new BigDecimal(totalCount), 
-            2, 
-            RoundingMode.HALF_UP
-        );
-        
-        // Status breakdown
-        Map<String, Long> statusBreakdown = transactions.stream()
-            .collect(Collectors.groupingBy(
-                Transaction::getStatus,
-                Collectors.counting()
-            ));
-        
-        // Build response
-        Map<String, Object> response = new HashMap<>();
-        response.put("totalTransactions", totalCount);
-        response.put("totalAmount", totalAmount);
-        response.put("averageAmount", averageAmount);
-        response.put("currency", "ZAR");
-        response.put("statusBreakdown", statusBreakdown);
-
-        return ResponseEntity.ok(response);
-
-   
+    	return ResponseEntity.ok(statisticsCache.getMetrics());
+    }
+    
+    /**
+     * POST - Check the statistics aggregate against the transactions table and correct drift
+     * 
+     * URL: POST /api/transactions/stats/reconcile
+     * 
+     * Use case: Admin checks the aggregate for drift (also runs hourly)
+     */
+    @PostMapping("/stats/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileStatistics() {
+    	
+    	Map<String, Object> report = transactionStatisticsService.reconcile();
+    	return ResponseEntity.ok(report);
     }
     
     /**
@@ -260,36 +435,110 @@ public class TransactionController {
      * GET - Search transactions by description
      * 
      * URL: GET /api/transactions/search?q=invoice
+     * URL: GET /api/transactions/search?q=woolworths+groceries&limit=50
+     * URL: GET /api/transactions/search?q=invoice&cursor=MC4xfFRYMTIz
+     * URL: GET /api/transactions/search?q=woolwrths&mode=fuzzy
+     * URL: GET /api/transactions/search?q=invoice&fields=transactionId,description
      * 
-     * Searches in description field (case-insensitive)
+     * CHANGED: Full-text search (whole words, stemmed: "groceries" also
+     * finds "grocery"), best match first, one page at a time.
+     * Follow nextCursor with the same q for the next page.
+     * 
+     * CHANGED: mode=fuzzy matches fragments and misspellings by trigram
+     * similarity instead (most similar first, one capped page, no cursor)
+     * 
+     * @param q Search text (words, "quoted phrases", -excluded, or)
+     * @param mode fulltext (default) or fuzzy
+     * @param cursor nextCursor of a previous page (optional, fulltext only)
+     * @param limit Page size (default 20, max 100)
+     * @param fields Comma-separated fields to return (optional)
      */
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> searchTransactions(
-            @RequestParam String q) {
+            @RequestParam String q,
+            @RequestParam(defaultValue = "fulltext") String mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String fields) {
     
     	if (q == null || q.trim().isEmpty()) {
             throw new InvalidOperationException("Search query cannot be empty");
         }
+    	if (limit < 1 || limit > 100) {
+    		throw new InvalidOperationException("Limit must be between 1 and 100");
+    	}
+    	TransactionSearchMode searchMode = TransactionSearchMode.fromParam(mode);
     	
-    	List<Transaction> results = transactionService.searchTransactions(q);
+    	List<?> results;
+    	String nextCursor;
+    	if (searchMode == TransactionSearchMode.FUZZY) {
+    		if (cursor != null) {
+    			throw new InvalidOperationException("Fuzzy search returns a single page - remove 'cursor'");
+    		}
+    		results = fields == null
+    				? transactionService.searchTransactionsBySimilarity(q, limit)
+    				: transactionService.searchTransactionsBySimilarity(q, limit, TransactionField.parse(fields));
+    		nextCursor = null;
+    	} else {
+    		TransactionPage<?> page = fields == null
+    				? transactionService.searchTransactions(q, cursor, limit)
+    				: transactionService.searchTransactions(q, cursor, limit, TransactionField.parse(fields));
+    		results = page.transactions();
+    		nextCursor = page.nextCursor();
+    	}
     	
     	Map<String, Object> response = new HashMap<>();
         response.put("query", q);
+        response.put("mode", searchMode.name().toLowerCase());
         response.put("resultCount", results.size());
+        response.put("limit", limit);
         response.put("transactions", results);
+        response.put("nextCursor", nextCursor);
 
         return ResponseEntity.ok(response);
         
     }
     
+    /**
+     * GET - Newest transactions first
+     * 
+     * URL: GET /api/transactions/recent?limit=20
+     * URL: GET /api/transactions/recent?fields=transactionId,amount,timestamp
+     * 
+     * Ordered by timestamp, then transactionId (idx_timestamp_transaction_id), whatever
+     * the ID strategy
+     * 
+     * @param limit Number of transactions (default 20, max 100)
+     * @param fields Comma-separated fields to return (optional)
+     */
+    @GetMapping("/recent")
+    public ResponseEntity<List<?>> getRecentTransactions(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String fields) {
+    	
+    	if (limit < 1 || limit > 100) {
+    		throw new InvalidOperationException("Limit must be between 1 and 100");
+    	}
+    	
+    	List<?> recent = fields == null
+    			? transactionService.getNewestTransactions(limit)
+    			: transactionService.getNewestTransactions(limit, TransactionField.parse(fields));
+    	return ResponseEntity.ok(recent);
+    }
+    
     /**
      * GET - Find large transactions (fraud detection)
+     * 
+     * URL: GET /api/transactions/large?threshold=5000&fields=transactionId,amount
      */
     @GetMapping("/large")
-    public ResponseEntity<List<Transaction>> getLargeTransactions(
-            @RequestParam(defaultValue = "1000") BigDecimal threshold) {
+    public ResponseEntity<List<?>> getLargeTransactions(
+            @RequestParam(defaultValue = "1000") BigDecimal threshold,
+            @RequestParam(required = false) String fields) {
         
-        List<Transaction> largeTransactions = transactionService.getLargeTransactions(threshold);
+        List<?> largeTransactions = fields == null
+        		? transactionService.getLargeTransactions(threshold)
+        		: transactionService.getLargeTransactions(threshold, TransactionField.parse(fields));
         return ResponseEntity.ok(largeTransactions);	
     }
     
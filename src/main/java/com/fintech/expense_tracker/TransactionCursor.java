@@ -0,0 +1,63 @@
+package com.fintech.expense_tracker;
+
+import com.fintech.expense_tracker.exceptions.InvalidOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * TransactionCursor - position in the (timestamp, transactionId) listing
+ *
+ * Sent to clients as an opaque URL-safe string. NEXT continues with
+ * older transactions than the cursor, PREV with newer ones.
+ *
+ * @param direction Which way to read from the position
+ * @param timestamp Timestamp of the transaction at the position
+ * @param transactionId ID of that transaction (tie-breaker for equal timestamps)
+ */
+public record TransactionCursor(Direction direction, LocalDateTime timestamp, String transactionId) {
+
+	public enum Direction {
+		NEXT,
+		PREV
+	}
+
+	/**
+	 * Cursor for the page after (older than) the given row
+	 */
+	public static TransactionCursor after(LocalDateTime timestamp, String transactionId) {
+		return new TransactionCursor(Direction.NEXT, timestamp, transactionId);
+	}
+
+	/**
+	 * Cursor for the page before (newer than) the given row
+	 */
+	public static TransactionCursor before(LocalDateTime timestamp, String transactionId) {
+		return new TransactionCursor(Direction.PREV, timestamp, transactionId);
+	}
+
+	public String encode() {
+		String raw = direction + "|" + timestamp + "|" + transactionId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Parse a cursor received from a client
+	 *
+	 * @throws InvalidOperationException if the cursor was not produced by encode()
+	 */
+	public static TransactionCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\|", 3);
+			if (parts.length != 3 || parts[2].isEmpty()) {
+				throw new InvalidOperationException("Invalid cursor");
+			}
+			return new TransactionCursor(Direction.valueOf(parts[0]), LocalDateTime.parse(parts[1]), parts[2]);
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new InvalidOperationException("Invalid cursor");
+		}
+	}
+}
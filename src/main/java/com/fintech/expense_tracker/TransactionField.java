@@ -0,0 +1,65 @@
+package com.fintech.expense_tracker;
+
+import com.fintech.expense_tracker.exceptions.InvalidOperationException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * TransactionField - fields a client can pick with ?fields=
+ *
+ * The JSON name is also the entity attribute, so the selection maps
+ * one to one onto the columns read from PostgreSQL.
+ */
+public enum TransactionField {
+	TRANSACTION_ID("transactionId"),
+	FROM_ACCOUNT("fromAccount"),
+	TO_ACCOUNT("toAccount"),
+	AMOUNT("amount"),
+	CURRENCY("currency"),
+	STATUS("status"),
+	TIMESTAMP("timestamp"),
+	DESCRIPTION("description");
+
+	private final String attribute;
+
+	TransactionField(String attribute) {
+		this.attribute = attribute;
+	}
+
+	public String attribute() {
+		return attribute;
+	}
+
+	/**
+	 * Parse a ?fields= value such as "transactionId,amount,timestamp"
+	 *
+	 * @param fields Comma-separated JSON field names
+	 * @return Selected fields in declaration order
+	 * @throws InvalidOperationException if empty or a name is unknown
+	 */
+	public static Set<TransactionField> parse(String fields) {
+		Set<TransactionField> selected = EnumSet.noneOf(TransactionField.class);
+		for (String name : fields.split(",")) {
+			String trimmed = name.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			selected.add(Arrays.stream(values())
+					.filter(field -> field.attribute.equals(trimmed))
+					.findFirst()
+					.orElseThrow(() -> new InvalidOperationException("Unknown field '" + trimmed
+							+ "' - allowed: " + allowed())));
+		}
+		if (selected.isEmpty()) {
+			throw new InvalidOperationException("'fields' must name at least one of: " + allowed());
+		}
+		return selected;
+	}
+
+	private static String allowed() {
+		return Arrays.stream(values()).map(TransactionField::attribute).collect(Collectors.joining(", "));
+	}
+}
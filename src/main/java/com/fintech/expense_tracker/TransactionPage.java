@@ -0,0 +1,15 @@
+package com.fintech.expense_tracker;
+
+import java.util.List;
+
+/**
+ * TransactionPage - one page of the cursor-paginated listing
+ * (also used for description search, best match first)
+ *
+ * @param <T> TransactionSummary (TransactionSearchResult for search), or a field map with ?fields=
+ * @param transactions Newest first
+ * @param nextCursor Cursor for older transactions (null on the last page)
+ * @param prevCursor Cursor for newer transactions (null on the first page)
+ */
+public record TransactionPage<T>(List<T> transactions, String nextCursor, String prevCursor) {
+}
@@ -1,10 +1,18 @@
 package com.fintech.expense_tracker;
 
+import com.fintech.expense_tracker.stats.StatusTotals;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * TransactionRepository - Data access layer for Transaction entity
@@ -20,23 +28,42 @@ import java.util.List;
  * - save(), findById(), findAll(), deleteById(), count(), etc.
  * 
  * Custom methods are generated from method names automatically.
+ * Queries assembled at runtime live in TransactionRepositoryCustom.
  */
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, String> {
+public interface TransactionRepository extends JpaRepository<Transaction, String>, TransactionRepositoryCustom {
+	
+	/**
+	 * Rows PostgreSQL sends per round trip when streaming
+	 * (the driver only honours it inside a transaction)
+	 */
+	String STREAM_FETCH_SIZE = "1000";
+	
 	 /**
      * Find all transactions involving a specific account
      * (either as sender or receiver)
      * 
+     * CHANGED: Served from ledger_entries - one range read on
+     * idx_ledger_account_timestamp covers both sides of every transfer,
+     * already newest first, then a primary key lookup per row
+     * 
      * Generated SQL:
-     * SELECT * FROM transactions 
-     * WHERE from_account = ? OR to_account = ?
+     * SELECT t.* FROM ledger_entries l
+     * JOIN transactions t ON t.transaction_id = l.transaction_id
+     * WHERE l.account = ?
+     * ORDER BY l.timestamp DESC, l.transaction_id DESC
      * 
-     * @param fromAccount Account to search in from_account field
-     * @param toAccount Account to search in to_account field
-     * @return List of matching transactions
+     * @param account Account as sender or receiver
+     * @return Matching transactions, newest first
      */
-	List<Transaction> findByFromAccountOrToAccount(String fromAccount, String toAccount);
+    @Query(value = """
+    		SELECT t.* FROM ledger_entries l
+    		JOIN transactions t ON t.transaction_id = l.transaction_id
+    		WHERE l.account = :account
+    		ORDER BY l.timestamp DESC, l.transaction_id DESC
+    		""", nativeQuery = true)
+	List<Transaction> findByAccount(@Param("account") String account);
 	
 	/**
      * Find transactions by status
@@ -88,34 +115,160 @@ public interface TransactionRepository extends JpaRepository<Transaction, String
      * Find transactions by account AND status
      * (from_account or to_account matches, and status matches)
      * 
+     * CHANGED: The derived findByFromAccountOrToAccountAndStatus parsed as
+     * "from_account = ? OR (to_account = ? AND status = ?)" and returned
+     * sent transactions of every status. Now read from ledger_entries,
+     * with the status checked on the joined transaction.
+     * 
      * Generated SQL:
-     * SELECT * FROM transactions 
-     * WHERE (from_account = ? OR to_account = ?) AND status = ?
+     * SELECT t.* FROM ledger_entries l
+     * JOIN transactions t ON t.transaction_id = l.transaction_id
+     * WHERE l.account = ? AND t.status = ?
+     * ORDER BY l.timestamp DESC, l.transaction_id DESC
      * 
-     * @param fromAccount Account to check in from_account
-     * @param toAccount Account to check in to_account
+     * @param account Account as sender or receiver
      * @param status Transaction status
-     * @return List of matching transactions
+     * @return Matching transactions, newest first
      */
-    List<Transaction> findByFromAccountOrToAccountAndStatus(
-        String fromAccount, 
-        String toAccount, 
-        String status
+    @Query(value = """
+    		SELECT t.* FROM ledger_entries l
+    		JOIN transactions t ON t.transaction_id = l.transaction_id
+    		WHERE l.account = :account AND t.status = :status
+    		ORDER BY l.timestamp DESC, l.transaction_id DESC
+    		""", nativeQuery = true)
+    List<Transaction> findByAccountAndStatus(
+        @Param("account") String account,
+        @Param("status") String status
     );
     
     /**
      * Count transactions for a specific account
      * 
+     * CHANGED: One index-only count on ledger_entries (one leg per
+     * transaction of the account) instead of an OR
+     * 
      * Generated SQL:
-     * SELECT COUNT(*) FROM transactions 
-     * WHERE from_account = ? OR to_account = ?
+     * SELECT COUNT(*) FROM ledger_entries WHERE account = ?
      * 
-     * @param fromAccount Account to check
-     * @param toAccount Account to check
+     * @param account Account to check
      * @return Number of transactions
      */
-    long countByFromAccountOrToAccount(String fromAccount, String toAccount);
+    @Query(value = "SELECT COUNT(*) FROM ledger_entries WHERE account = :account", nativeQuery = true)
+    long countByAccount(@Param("account") String account);
+    
+    /**
+     * Find the newest transactions
+     * 
+     * Generated SQL:
+     * SELECT * FROM transactions ORDER BY timestamp DESC, transaction_id DESC LIMIT ?
+     * 
+     * Ordered by time, not by ID: sequence IDs (TX1 ... TX10) have no
+     * fixed width, so their string order is not creation order.
+     * transaction_id only breaks ties, as in the page queries.
+     * 
+     * @param limit Maximum number of rows
+     * @return Newest transactions first
+     */
+    List<Transaction> findAllByOrderByTimestampDescTransactionIdDesc(Limit limit);
     
-    // Add this method to your interface
-    List<Transaction> findByDescriptionContainingIgnoreCase(String description);
+    /**
+     * Count and total amount per status over all transactions
+     * 
+     * Generated SQL:
+     * SELECT status, COUNT(*), SUM(amount) FROM transactions GROUP BY status
+     * 
+     * Reads every row; used by reconciliation. Filtered totals are
+     * sumAmount / sumAmountGroupByStatus (TransactionRepositoryCustom).
+     * 
+     * @return One row per status
+     */
+    @Query("select new com.fintech.expense_tracker.stats.StatusTotals(t.status, count(t), sum(t.amount)) "
+    		+ "from Transaction t "
+    		+ "group by t.status")
+    List<StatusTotals> sumAmountByStatus();
+    
+    // ==================== READ PROJECTIONS (list endpoints) ====================
+    // Rows are built as records by the query itself, so Hibernate keeps no
+    // entity or snapshot for them.
+    
+    String SUMMARY = "select new com.fintech.expense_tracker.TransactionSummary("
+    		+ "t.transactionId, t.fromAccount, t.toAccount, t.amount, t.currency, t.status, t.timestamp, t.description) "
+    		+ "from Transaction t ";
+    
+    
+    /**
+     * Summaries of transactions above an amount (fraud detection)
+     */
+    @Query(SUMMARY + "where t.amount > :amount")
+    List<TransactionSummary> findSummariesByAmountGreaterThan(@Param("amount") BigDecimal amount);
+    
+    /**
+     * Summaries of transactions with a status
+     */
+    @Query(SUMMARY + "where t.status = :status")
+    List<TransactionSummary> findSummariesByStatus(@Param("status") String status);
+    
+    /**
+     * Newest summaries (see findAllByOrderByTimestampDescTransactionIdDesc)
+     */
+    @Query(SUMMARY + "order by t.timestamp desc, t.transactionId desc")
+    List<TransactionSummary> findNewestSummaries(Limit limit);
+    
+    // ==================== STREAMING (NDJSON export) ====================
+    // Rows are fetched STREAM_FETCH_SIZE at a time through a cursor instead
+    // of loading the whole result. Call inside a transaction and close the stream.
+    
+    /**
+     * Stream every transaction
+     * 
+     * Generated SQL:
+     * SELECT * FROM transactions
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Transaction> streamAllBy();
+    
+    /**
+     * Stream transactions involving an account (sender or receiver)
+     * 
+     * Generated SQL:
+     * SELECT t.* FROM ledger_entries l
+     * JOIN transactions t ON t.transaction_id = l.transaction_id
+     * WHERE l.account = ?
+     * ORDER BY l.timestamp DESC, l.transaction_id DESC
+     */
+    @Query(value = """
+    		SELECT t.* FROM ledger_entries l
+    		JOIN transactions t ON t.transaction_id = l.transaction_id
+    		WHERE l.account = :account
+    		ORDER BY l.timestamp DESC, l.transaction_id DESC
+    		""", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Transaction> streamByAccount(@Param("account") String account);
+    
+    /**
+     * Stream transactions by status
+     * 
+     * Generated SQL:
+     * SELECT * FROM transactions WHERE status = ?
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Transaction> streamByStatus(String status);
+    
+    /**
+     * Stream transactions by account AND status
+     * 
+     * Generated SQL:
+     * SELECT t.* FROM ledger_entries l
+     * JOIN transactions t ON t.transaction_id = l.transaction_id
+     * WHERE l.account = ? AND t.status = ?
+     * ORDER BY l.timestamp DESC, l.transaction_id DESC
+     */
+    @Query(value = """
+    		SELECT t.* FROM ledger_entries l
+    		JOIN transactions t ON t.transaction_id = l.transaction_id
+    		WHERE l.account = :account AND t.status = :status
+    		ORDER BY l.timestamp DESC, l.transaction_id DESC
+    		""", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<Transaction> streamByAccountAndStatus(@Param("account") String account, @Param("status") String status);
 }
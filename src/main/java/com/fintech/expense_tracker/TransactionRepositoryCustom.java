@@ -0,0 +1,119 @@
+package com.fintech.expense_tracker;
+
+import com.fintech.expense_tracker.stats.StatusTotals;
+import com.fintech.expense_tracker.stats.TransactionTotals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * TransactionRepositoryCustom - queries built at runtime
+ *
+ * Implemented by TransactionRepositoryCustomImpl and mixed into
+ * TransactionRepository by Spring Data.
+ */
+public interface TransactionRepositoryCustom {
+
+	/**
+	 * Keyset page of transactions ordered by (timestamp, transactionId)
+	 *
+	 * Seeks straight to the cursor instead of skipping rows with OFFSET,
+	 * so a deep page costs the same as the first one.
+	 *
+	 * @param account Sender or receiver account (optional)
+	 * @param status Status (optional)
+	 * @param cursor Position to read from (null = newest transactions)
+	 * @param limit Maximum number of rows
+	 * @return Summaries, newest first, or oldest first for a PREV cursor
+	 */
+	List<TransactionSummary> findPage(String account, String status, TransactionCursor cursor, int limit);
+
+	// ==================== ACCOUNT QUERIES ====================
+	// Named native queries on Transaction: read from ledger_entries (one leg
+	// per transaction of the account) and join the transactions.
+
+	/**
+	 * Summaries of transactions involving an account (sender or receiver), newest first
+	 */
+	List<TransactionSummary> findSummariesByAccount(String account);
+
+	/**
+	 * Newest summaries of an account (the same query, with LIMIT)
+	 */
+	List<TransactionSummary> findSummariesByAccount(String account, int limit);
+
+	/**
+	 * Summaries of an account's transactions with a given status, newest first
+	 */
+	List<TransactionSummary> findSummariesByAccountAndStatus(String account, String status);
+
+	// ==================== DESCRIPTION SEARCH ====================
+
+	/**
+	 * Full-text description search, best match first
+	 *
+	 * @param query Search text (web search syntax: words, "phrases", -excluded, or)
+	 * @param cursor Last result of the previous page (null = first page)
+	 * @param limit Maximum number of rows
+	 * @return Results ordered by (rank, transactionId), descending
+	 */
+	List<TransactionSearchResult> searchByDescription(String query, TransactionSearchCursor cursor, int limit);
+
+	/**
+	 * Fuzzy description search (fragments, misspellings), most similar first
+	 *
+	 * @param query Search text
+	 * @param threshold Minimum word similarity, 0 to 1
+	 * @param limit Maximum number of rows
+	 * @return Results with rank = word similarity
+	 */
+	List<TransactionSearchResult> searchByDescriptionSimilarity(String query, double threshold, int limit);
+
+	// ==================== STATISTICS ====================
+	// Every filter is optional (null = not applied); only the given ones
+	// end up in the WHERE clause.
+
+	/**
+	 * Count, total and average amount, computed by PostgreSQL
+	 *
+	 * @param from Earliest timestamp, inclusive (optional)
+	 * @param to Latest timestamp, exclusive (optional)
+	 * @param account Sender or receiver account (optional)
+	 * @return Single totals row
+	 */
+	TransactionTotals sumAmount(LocalDateTime from, LocalDateTime to, String account);
+
+	/**
+	 * Count and total amount per status, computed by PostgreSQL
+	 *
+	 * @param from Earliest timestamp, inclusive (optional)
+	 * @param to Latest timestamp, exclusive (optional)
+	 * @param account Sender or receiver account (optional)
+	 * @return One row per status
+	 */
+	List<StatusTotals> sumAmountGroupByStatus(LocalDateTime from, LocalDateTime to, String account);
+
+	// ==================== SPARSE FIELDSETS (?fields=) ====================
+	// Same queries as their full counterparts, but only the given columns
+	// are selected. Each row is a map of JSON name -> value, in field order.
+
+	/**
+	 * findPage with selected fields (include timestamp and transactionId
+	 * when cursors have to be built from the rows)
+	 */
+	List<Map<String, Object>> findPageFields(String account, String status, TransactionCursor cursor,
+			int limit, Set<TransactionField> fields);
+
+	Optional<Map<String, Object>> findFieldsById(String transactionId, Set<TransactionField> fields);
+
+	/**
+	 * Newest first (see findAllByOrderByTimestampDescTransactionIdDesc)
+	 */
+	List<Map<String, Object>> findNewestFields(int limit, Set<TransactionField> fields);
+
+	List<Map<String, Object>> findFieldsByAmountGreaterThan(BigDecimal amount, Set<TransactionField> fields);
+}
@@ -0,0 +1,317 @@
+package com.fintech.expense_tracker;
+
+import com.fintech.expense_tracker.ledger.LedgerEntry;
+import com.fintech.expense_tracker.stats.StatusTotals;
+import com.fintech.expense_tracker.stats.TransactionTotals;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * TransactionRepositoryCustomImpl - Criteria API implementation of
+ * TransactionRepositoryCustom
+ *
+ * Only the filters that are actually given end up in the WHERE clause,
+ * so PostgreSQL plans each combination with the matching index.
+ */
+class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Generated SQL (NEXT cursor, all filters):
+	 * SELECT t.transaction_id, t.from_account, t.to_account, t.amount, t.currency, t.status, t.timestamp
+	 * FROM transactions t, ledger_entries l
+	 * WHERE l.account = ? AND l.transaction_id = t.transaction_id AND t.status = ?
+	 *   AND l.timestamp <= ? AND (l.timestamp < ? OR l.transaction_id < ?)
+	 * ORDER BY l.timestamp DESC, l.transaction_id DESC LIMIT ?
+	 *
+	 * With an account the seek and the order run on the ledger leg
+	 * (idx_ledger_account_timestamp), without one on
+	 * idx_status_timestamp_transaction_id or idx_timestamp_transaction_id.
+	 * 'timestamp <= ?' is a plain range condition; the second condition
+	 * only drops rows tied at the cursor timestamp.
+	 */
+	@Override
+	public List<TransactionSummary> findPage(String account, String status, TransactionCursor cursor, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<TransactionSummary> query = cb.createQuery(TransactionSummary.class);
+		Root<Transaction> t = query.from(Transaction.class);
+
+		query.select(cb.construct(TransactionSummary.class,
+				t.get("transactionId"), t.get("fromAccount"), t.get("toAccount"), t.get("amount"),
+				t.get("currency"), t.get("status"), t.get("timestamp"), t.get("description")));
+		restrictPage(cb, query, t, account, status, cursor);
+
+		return entityManager.createQuery(query)
+				.setMaxResults(limit)
+				.getResultList();
+	}
+
+	// ==================== ACCOUNT QUERIES ====================
+
+	/**
+	 * Generated SQL: see @NamedNativeQuery "Transaction.findSummariesByAccount"
+	 */
+	@Override
+	public List<TransactionSummary> findSummariesByAccount(String account) {
+		return entityManager.createNamedQuery("Transaction.findSummariesByAccount", TransactionSummary.class)
+				.setParameter("account", account)
+				.getResultList();
+	}
+
+	/**
+	 * Generated SQL: "Transaction.findSummariesByAccount" + LIMIT ?
+	 */
+	@Override
+	public List<TransactionSummary> findSummariesByAccount(String account, int limit) {
+		return entityManager.createNamedQuery("Transaction.findSummariesByAccount", TransactionSummary.class)
+				.setParameter("account", account)
+				.setMaxResults(limit)
+				.getResultList();
+	}
+
+	/**
+	 * Generated SQL: see @NamedNativeQuery "Transaction.findSummariesByAccountAndStatus"
+	 */
+	@Override
+	public List<TransactionSummary> findSummariesByAccountAndStatus(String account, String status) {
+		return entityManager.createNamedQuery("Transaction.findSummariesByAccountAndStatus", TransactionSummary.class)
+				.setParameter("account", account)
+				.setParameter("status", status)
+				.getResultList();
+	}
+
+	// ==================== DESCRIPTION SEARCH ====================
+
+	/**
+	 * Generated SQL: see @NamedNativeQuery "Transaction.searchByDescription"
+	 * and "Transaction.searchByDescriptionAfter" (with a cursor), + LIMIT ?
+	 */
+	@Override
+	public List<TransactionSearchResult> searchByDescription(String query, TransactionSearchCursor cursor, int limit) {
+		TypedQuery<TransactionSearchResult> search;
+		if (cursor == null) {
+			search = entityManager.createNamedQuery("Transaction.searchByDescription", TransactionSearchResult.class);
+		} else {
+			search = entityManager.createNamedQuery("Transaction.searchByDescriptionAfter", TransactionSearchResult.class)
+					.setParameter("rank", cursor.rank())
+					.setParameter("transactionId", cursor.transactionId());
+		}
+		return search
+				.setParameter("query", query)
+				.setMaxResults(limit)
+				.getResultList();
+	}
+
+	/**
+	 * Generated SQL:
+	 * SELECT set_config('pg_trgm.word_similarity_threshold', ?, true);
+	 * then @NamedNativeQuery "Transaction.searchByDescriptionSimilarity" + LIMIT ?
+	 *
+	 * The threshold is set for the current database transaction only, so
+	 * '<%' applies it inside the index scan instead of filtering afterwards.
+	 */
+	@Override
+	public List<TransactionSearchResult> searchByDescriptionSimilarity(String query, double threshold, int limit) {
+		entityManager.createNativeQuery("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+				.setParameter("threshold", String.valueOf(threshold))
+				.getSingleResult();
+		return entityManager.createNamedQuery("Transaction.searchByDescriptionSimilarity", TransactionSearchResult.class)
+				.setParameter("query", query)
+				.setMaxResults(limit)
+				.getResultList();
+	}
+
+	// ==================== STATISTICS ====================
+
+	/**
+	 * Generated SQL (all filters):
+	 * SELECT COUNT(*), SUM(amount) FROM transactions
+	 * WHERE timestamp >= ? AND timestamp < ? AND (from_account = ? OR to_account = ?)
+	 *
+	 * The average is SUM / COUNT, rounded here, so it stays an exact decimal.
+	 */
+	@Override
+	public TransactionTotals sumAmount(LocalDateTime from, LocalDateTime to, String account) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Transaction> t = query.from(Transaction.class);
+
+		query.multiselect(cb.count(t), cb.sum(t.<BigDecimal>get("amount")));
+		query.where(totalsFilter(cb, t, from, to, account));
+
+		Tuple row = entityManager.createQuery(query).getSingleResult();
+		long count = row.get(0, Long.class);
+		BigDecimal total = row.get(1, BigDecimal.class);
+		BigDecimal average = count == 0 ? null : total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+		return new TransactionTotals(count, total, average);
+	}
+
+	/**
+	 * Generated SQL:
+	 * SELECT status, COUNT(*), SUM(amount) FROM transactions
+	 * WHERE ... (same filters as sumAmount)
+	 * GROUP BY status
+	 */
+	@Override
+	public List<StatusTotals> sumAmountGroupByStatus(LocalDateTime from, LocalDateTime to, String account) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<StatusTotals> query = cb.createQuery(StatusTotals.class);
+		Root<Transaction> t = query.from(Transaction.class);
+
+		query.select(cb.construct(StatusTotals.class,
+				t.get("status"), cb.count(t), cb.sum(t.<BigDecimal>get("amount"))));
+		query.where(totalsFilter(cb, t, from, to, account));
+		query.groupBy(t.get("status"));
+
+		return entityManager.createQuery(query).getResultList();
+	}
+
+	private static Predicate[] totalsFilter(CriteriaBuilder cb, Root<Transaction> t,
+			LocalDateTime from, LocalDateTime to, String account) {
+		List<Predicate> where = new ArrayList<>();
+		if (from != null) {
+			where.add(cb.greaterThanOrEqualTo(t.<LocalDateTime>get("timestamp"), from));
+		}
+		if (to != null) {
+			where.add(cb.lessThan(t.<LocalDateTime>get("timestamp"), to));
+		}
+		if (account != null) {
+			where.add(cb.or(cb.equal(t.get("fromAccount"), account), cb.equal(t.get("toAccount"), account)));
+		}
+		return where.toArray(new Predicate[0]);
+	}
+
+	// ==================== SPARSE FIELDSETS (?fields=) ====================
+
+	@Override
+	public List<Map<String, Object>> findPageFields(String account, String status, TransactionCursor cursor,
+			int limit, Set<TransactionField> fields) {
+		return select(fields, limit, (cb, t, query) -> restrictPage(cb, query, t, account, status, cursor));
+	}
+
+	@Override
+	public Optional<Map<String, Object>> findFieldsById(String transactionId, Set<TransactionField> fields) {
+		return select(fields, 1, (cb, t, query) -> query
+				.where(cb.equal(t.get("transactionId"), transactionId)))
+				.stream().findFirst();
+	}
+
+	@Override
+	public List<Map<String, Object>> findNewestFields(int limit, Set<TransactionField> fields) {
+		return select(fields, limit, (cb, t, query) -> query
+				.orderBy(cb.desc(t.get("timestamp")), cb.desc(t.get("transactionId"))));
+	}
+
+	@Override
+	public List<Map<String, Object>> findFieldsByAmountGreaterThan(BigDecimal amount, Set<TransactionField> fields) {
+		return select(fields, 0, (cb, t, query) -> query
+				.where(cb.greaterThan(t.<BigDecimal>get("amount"), amount)));
+	}
+
+	/**
+	 * Tuple query over only the selected columns
+	 *
+	 * @param fields Columns to read (also the keys of each map, in the same order)
+	 * @param limit Maximum rows (0 = no limit)
+	 * @param restriction Adds WHERE/ORDER BY
+	 */
+	private List<Map<String, Object>> select(Set<TransactionField> fields, int limit, Restriction restriction) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Transaction> t = query.from(Transaction.class);
+
+		List<Selection<?>> selections = new ArrayList<>();
+		for (TransactionField field : fields) {
+			selections.add(t.get(field.attribute()).alias(field.attribute()));
+		}
+		query.multiselect(selections);
+		restriction.apply(cb, t, query);
+
+		TypedQuery<Tuple> typed = entityManager.createQuery(query);
+		if (limit > 0) {
+			typed.setMaxResults(limit);
+		}
+
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (Tuple tuple : typed.getResultList()) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			for (TransactionField field : fields) {
+				row.put(field.attribute(), tuple.get(field.attribute()));
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	@FunctionalInterface
+	private interface Restriction {
+		void apply(CriteriaBuilder cb, Root<Transaction> t, CriteriaQuery<Tuple> query);
+	}
+
+	// ==================== KEYSET HELPERS ====================
+
+	/**
+	 * WHERE and ORDER BY of a keyset page
+	 *
+	 * An account filter joins the account's ledger legs, and the cursor
+	 * seek and sort use the leg's (timestamp, transaction_id), which
+	 * carry the same values as the transaction's.
+	 */
+	private static void restrictPage(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Transaction> t,
+			String account, String status, TransactionCursor cursor) {
+		Path<LocalDateTime> timestamp = t.get("timestamp");
+		Path<String> transactionId = t.get("transactionId");
+
+		List<Predicate> where = new ArrayList<>();
+		if (account != null) {
+			Root<LedgerEntry> l = query.from(LedgerEntry.class);
+			timestamp = l.get("timestamp");
+			transactionId = l.get("id").get("transactionId");
+			where.add(cb.equal(l.get("account"), account));
+			where.add(cb.equal(transactionId, t.get("transactionId")));
+		}
+		if (status != null) {
+			where.add(cb.equal(t.get("status"), status));
+		}
+
+		boolean backward = isBackward(cursor);
+		if (backward) {
+			where.add(cb.greaterThanOrEqualTo(timestamp, cursor.timestamp()));
+			where.add(cb.or(cb.greaterThan(timestamp, cursor.timestamp()),
+					cb.greaterThan(transactionId, cursor.transactionId())));
+		} else if (cursor != null) {
+			where.add(cb.lessThanOrEqualTo(timestamp, cursor.timestamp()));
+			where.add(cb.or(cb.lessThan(timestamp, cursor.timestamp()),
+					cb.lessThan(transactionId, cursor.transactionId())));
+		}
+
+		query.where(where.toArray(new Predicate[0]));
+		query.orderBy(backward
+				? List.of(cb.asc(timestamp), cb.asc(transactionId))
+				: List.of(cb.desc(timestamp), cb.desc(transactionId)));
+	}
+
+	private static boolean isBackward(TransactionCursor cursor) {
+		return cursor != null && cursor.direction() == TransactionCursor.Direction.PREV;
+	}
+}
@@ -0,0 +1,41 @@
+package com.fintech.expense_tracker;
+
+import com.fintech.expense_tracker.exceptions.InvalidOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * TransactionSearchCursor - position in ranked description search results
+ *
+ * Sent to clients as an opaque URL-safe string; the next page continues
+ * with results ranked below (rank, transactionId).
+ *
+ * @param rank Rank of the last result on the page
+ * @param transactionId ID of that result (tie-breaker for equal ranks)
+ */
+public record TransactionSearchCursor(float rank, String transactionId) {
+
+	public String encode() {
+		String raw = rank + "|" + transactionId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Parse a cursor received from a client
+	 *
+	 * @throws InvalidOperationException if the cursor was not produced by encode()
+	 */
+	public static TransactionSearchCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\|", 2);
+			if (parts.length != 2 || parts[1].isEmpty()) {
+				throw new InvalidOperationException("Invalid cursor");
+			}
+			return new TransactionSearchCursor(Float.parseFloat(parts[0]), parts[1]);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidOperationException("Invalid cursor");
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package com.fintech.expense_tracker;
+
+import com.fintech.expense_tracker.exceptions.InvalidOperationException;
+
+/**
+ * TransactionSearchMode - how /api/transactions/search matches descriptions
+ */
+public enum TransactionSearchMode {
+
+	/**
+	 * Whole (stemmed) words, ranked, cursor-paginated (idx_description_tsv)
+	 */
+	FULLTEXT,
+
+	/**
+	 * Fragments and misspellings ("woolwrths"), ranked by trigram
+	 * similarity, capped result count (idx_description_trgm_gist)
+	 */
+	FUZZY;
+
+	/**
+	 * Parse the ?mode= request parameter (fulltext, fuzzy)
+	 *
+	 * @throws InvalidOperationException if the value is unknown
+	 */
+	public static TransactionSearchMode fromParam(String value) {
+		for (TransactionSearchMode mode : values()) {
+			if (mode.name().equalsIgnoreCase(value)) {
+				return mode;
+			}
+		}
+		throw new InvalidOperationException("Mode must be 'fulltext' or 'fuzzy'");
+	}
+}
@@ -0,0 +1,45 @@
+package com.fintech.expense_tracker;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TransactionSearchResult - read-only row for description search
+ *
+ * Like TransactionSummary, plus the full-text rank of the description
+ * (higher = better match).
+ */
+public record TransactionSearchResult(
+		String transactionId,
+		String fromAccount,
+		String toAccount,
+		BigDecimal amount,
+		String currency,
+		String status,
+		LocalDateTime timestamp,
+		String description,
+		float rank) {
+
+	/**
+	 * Only the requested fields, keyed by JSON name, in field order
+	 */
+	public Map<String, Object> select(Set<TransactionField> fields) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		for (TransactionField field : fields) {
+			row.put(field.attribute(), switch (field) {
+				case TRANSACTION_ID -> transactionId;
+				case FROM_ACCOUNT -> fromAccount;
+				case TO_ACCOUNT -> toAccount;
+				case AMOUNT -> amount;
+				case CURRENCY -> currency;
+				case STATUS -> status;
+				case TIMESTAMP -> timestamp;
+				case DESCRIPTION -> description;
+			});
+		}
+		return row;
+	}
+}
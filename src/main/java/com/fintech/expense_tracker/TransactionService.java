@@ -1,7 +1,18 @@
 package com.fintech.expense_tracker;
 
+import com.fintech.expense_tracker.account.AccountBalanceService;
+import com.fintech.expense_tracker.account.AccountSummaryService;
+import com.fintech.expense_tracker.account.CounterpartyService;
 import com.fintech.expense_tracker.exceptions.*;
+import com.fintech.expense_tracker.id.TransactionIdGenerator;
+import com.fintech.expense_tracker.ledger.LedgerService;
+import com.fintech.expense_tracker.stats.StatisticsCache;
+import com.fintech.expense_tracker.stats.TransactionStatisticsService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -9,10 +20,16 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 /**
@@ -36,6 +53,43 @@ public class TransactionService {
 	@Autowired
 	private TransactionRepository transactionRepository;
 	
+	@Autowired
+	private TransactionIdGenerator transactionIdGenerator;
+	
+	@Autowired
+	private LedgerService ledgerService;
+	
+	@Autowired
+	private TransactionStatisticsService transactionStatisticsService;
+	
+	@Autowired
+	private AccountSummaryService accountSummaryService;
+	
+	@Autowired
+	private AccountBalanceService accountBalanceService;
+	
+	@Autowired
+	private CounterpartyService counterpartyService;
+	
+	@Autowired
+	private StatisticsCache statisticsCache;
+	
+	@Autowired
+	private TransactionVersions transactionVersions;
+	
+	@Autowired
+	private RecentTransactions recentTransactions;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	// Fuzzy search: minimum word similarity (0-1) and most results returned
+	@Value("${expense-tracker.search.similarity.threshold:0.5}")
+	private double similarityThreshold;
+	
+	@Value("${expense-tracker.search.similarity.max-results:50}")
+	private int similarityMaxResults;
+	
 	
 	 /**
      * Create new transaction with full business validation
@@ -72,7 +126,18 @@ public class TransactionService {
         }
         
         // Save to database (delegate to repository)
-        return transactionRepository.save(transaction);   
+        Transaction saved = transactionRepository.save(transaction);
+        ledgerService.recordCreated(List.of(saved));
+        
+        // Keep /stats aggregate in sync (same database transaction)
+        transactionStatisticsService.recordCreated(saved);
+        accountSummaryService.recordCreated(List.of(saved));
+        accountBalanceService.recordCreated(List.of(saved));
+        counterpartyService.recordCreated(List.of(saved));
+        statisticsCache.invalidate();
+        transactionVersions.recordChange(List.of(saved.getFromAccount(), saved.getToAccount()));
+        recentTransactions.recordSaved(List.of(saved));
+        return saved;
 	}
 	
 	/**
@@ -84,14 +149,175 @@ public class TransactionService {
         return transactionRepository.findAll();
     }
     
+    /**
+     * Get the newest transactions
+     * 
+     * CHANGED: Ordered by timestamp, then transactionId, instead of by
+     * ID alone - sequence IDs have no fixed width ("TX9" sorts after
+     * "TX10"), so ID order was only right for the snowflake strategy
+     * 
+     * @param limit Maximum number of transactions
+     * @return Newest transactions first
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> getNewestTransactions(int limit) {
+        return transactionRepository.findNewestSummaries(Limit.of(limit));
+    }
+    
+    /**
+     * Newest transactions with only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getNewestTransactions(int limit, Set<TransactionField> fields) {
+        return transactionRepository.findNewestFields(limit, fields);
+    }
+    
+    /**
+     * Get one page of transactions, newest first
+     * 
+     * Keyset pagination on (timestamp, transactionId): one extra row is
+     * read to know whether another page exists in the reading direction
+     * 
+     * CHANGED: The first page of an account without status filter is
+     * its newest transactions - served by getTransactionsByAccount(limit)
+     * 
+     * @param account Sender or receiver account (optional)
+     * @param status Status (optional)
+     * @param cursor Cursor from a previous page (null = first page)
+     * @param size Page size
+     * @return Page with next/prev cursors
+     * @throws InvalidOperationException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage<TransactionSummary> getTransactionPage(String account, String status, String cursor, int size) {
+        return page(cursor, size,
+                position -> position == null && account != null && status == null
+                        ? getTransactionsByAccount(account, size + 1)
+                        : transactionRepository.findPage(account, status, position, size + 1),
+                TransactionSummary::timestamp, TransactionSummary::transactionId);
+    }
+    
+    /**
+     * Same page, with only the requested fields
+     * 
+     * timestamp and transactionId are always read (the cursors are built
+     * from them) but only returned when requested
+     * 
+     * @param fields Fields to select and return
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage<Map<String, Object>> getTransactionPage(String account, String status, String cursor,
+            int size, Set<TransactionField> fields) {
+        Set<TransactionField> selected = EnumSet.copyOf(fields);
+        selected.add(TransactionField.TIMESTAMP);
+        selected.add(TransactionField.TRANSACTION_ID);
+        
+        TransactionPage<Map<String, Object>> page = page(cursor, size,
+                position -> transactionRepository.findPageFields(account, status, position, size + 1, selected),
+                row -> (LocalDateTime) row.get(TransactionField.TIMESTAMP.attribute()),
+                row -> (String) row.get(TransactionField.TRANSACTION_ID.attribute()));
+        
+        for (Map<String, Object> row : page.transactions()) {
+            row.keySet().removeIf(name -> fields.stream().noneMatch(field -> field.attribute().equals(name)));
+        }
+        return page;
+    }
+    
+    /**
+     * Keyset paging shared by both row types
+     * One extra row is read to know whether another page exists
+     */
+    private <T> TransactionPage<T> page(String cursor, int size, Function<TransactionCursor, List<T>> query,
+            Function<T, LocalDateTime> timestampOf, Function<T, String> idOf) {
+        TransactionCursor position = cursor == null ? null : TransactionCursor.decode(cursor);
+        boolean backward = position != null && position.direction() == TransactionCursor.Direction.PREV;
+        
+        List<T> rows = new ArrayList<>(query.apply(position));
+        boolean more = rows.size() > size;
+        if (more) {
+            rows.remove(size);
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
+        
+        // Reading forward from a cursor means newer rows exist, and vice versa
+        boolean hasOlder = backward || more;
+        boolean hasNewer = backward ? more : position != null;
+        
+        String nextCursor = null;
+        String prevCursor = null;
+        if (hasOlder && !rows.isEmpty()) {
+            T last = rows.get(rows.size() - 1);
+            nextCursor = TransactionCursor.after(timestampOf.apply(last), idOf.apply(last)).encode();
+        }
+        if (hasNewer && !rows.isEmpty()) {
+            T first = rows.get(0);
+            prevCursor = TransactionCursor.before(timestampOf.apply(first), idOf.apply(first)).encode();
+        }
+        return new TransactionPage<>(rows, nextCursor, prevCursor);
+    }
+    
+    /**
+     * Hand every matching transaction to a consumer, one at a time
+     * 
+     * Rows come from a database cursor (fetch size 1000) and each entity
+     * is detached once consumed, so memory stays flat whatever the row count
+     * 
+     * @param account Sender or receiver account (optional)
+     * @param status Status (optional)
+     * @param consumer Called once per transaction (e.g. writes one NDJSON line)
+     * @return Number of transactions streamed
+     */
+    @Transactional(readOnly = true)
+    public long streamTransactions(String account, String status, Consumer<Transaction> consumer) {
+        long count = 0;
+        try (Stream<Transaction> transactions = openStream(account, status)) {
+            for (Transaction transaction : (Iterable<Transaction>) transactions::iterator) {
+                consumer.accept(transaction);
+                entityManager.detach(transaction);
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private Stream<Transaction> openStream(String account, String status) {
+        if (account != null && status != null) {
+            return transactionRepository.streamByAccountAndStatus(account, status);
+        } else if (account != null) {
+            return transactionRepository.streamByAccount(account);
+        } else if (status != null) {
+            return transactionRepository.streamByStatus(status);
+        }
+        return transactionRepository.streamAllBy();
+    }
+    
     /**
      * Get transactions by account (sender or receiver)
      * 
      * @param accountId Account to filter by
      * @return List of transactions involving this account
      */
-    public List<Transaction> getTransactionsByAccount(String accountId) {
-        return transactionRepository.findByFromAccountOrToAccount(accountId, accountId);
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> getTransactionsByAccount(String accountId) {
+        return transactionRepository.findSummariesByAccount(accountId);
+    }
+    
+    /**
+     * Get the newest transactions of an account
+     * 
+     * Served from the in-memory ring of recently read accounts; a miss
+     * reads the database and keeps the result for the next request
+     * 
+     * @param accountId Account to filter by
+     * @param limit Maximum number of transactions
+     * @return Newest transactions first
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> getTransactionsByAccount(String accountId, int limit) {
+        return recentTransactions.get(accountId, limit,
+                count -> transactionRepository.findSummariesByAccount(accountId, count));
     }
 
   
@@ -101,8 +327,9 @@ public class TransactionService {
      * @param status Transaction status
      * @return List of transactions with this status
      */
-    public List<Transaction> getTransactionsByStatus(String status) {
-        return transactionRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> getTransactionsByStatus(String status) {
+        return transactionRepository.findSummariesByStatus(status);
     }
     
     /**
@@ -112,8 +339,9 @@ public class TransactionService {
      * @param status Status to filter by
      * @return List of matching transactions
      */
-    public List<Transaction> getTransactionsByAccountAndStatus(String accountId, String status) {
-        return transactionRepository.findByFromAccountOrToAccountAndStatus(accountId, accountId, status);
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> getTransactionsByAccountAndStatus(String accountId, String status) {
+        return transactionRepository.findSummariesByAccountAndStatus(accountId, status);
     }
     
     /**
@@ -128,6 +356,17 @@ public class TransactionService {
         		.orElseThrow(() -> new ResourceNotFoundException("Transaction", id));
     }
     
+    /**
+     * Get transaction by ID with only the requested fields
+     * 
+     * @throws ResourceNotFoundException if not found
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTransactionById(String id, Set<TransactionField> fields) {
+        return transactionRepository.findFieldsById(id, fields)
+        		.orElseThrow(() -> new ResourceNotFoundException("Transaction", id));
+    }
+    
     /**
      * Update transaction status with business rule validation
      * 
@@ -148,8 +387,16 @@ public class TransactionService {
         			"Cannot change status of refunded transaction");
         }
         
+        String oldStatus = transaction.getStatus();
         transaction.setStatus(newStatus);
-        return transactionRepository.save(transaction);
+        Transaction updated = transactionRepository.save(transaction);
+        
+        transactionStatisticsService.recordStatusChange(updated, oldStatus);
+        accountBalanceService.recordStatusChange(updated, oldStatus);
+        statisticsCache.invalidate();
+        transactionVersions.recordChange(List.of(updated.getFromAccount(), updated.getToAccount()));
+        recentTransactions.recordSaved(List.of(updated));
+        return updated;
     }
     
     /**
@@ -171,6 +418,13 @@ public class TransactionService {
         }
         
         transactionRepository.delete(transaction);
+        ledgerService.recordDeleted(transaction);
+        transactionStatisticsService.recordDeleted(transaction);
+        accountSummaryService.recordDeleted(transaction);
+        accountBalanceService.recordDeleted(transaction);
+        statisticsCache.invalidate();
+        transactionVersions.recordChange(List.of(transaction.getFromAccount(), transaction.getToAccount()));
+        recentTransactions.recordDeleted(transaction);
     }
     
     /**
@@ -185,11 +439,14 @@ public class TransactionService {
     /**
      * Get number of transactions for specific account
      * 
+     * CHANGED: Read from account_summary (one row) instead of
+     * counting with an OR over from_account/to_account
+     * 
      * @param accountId Account ID
      * @return Count of transactions involving this account
      */
     public long getTransactionCountByAccount(String accountId) {
-        return transactionRepository.countByFromAccountOrToAccount(accountId, accountId);
+        return accountSummaryService.getTransactionCount(accountId);
     }
 
     /**
@@ -199,8 +456,17 @@ public class TransactionService {
      * @param threshold Minimum amount
      * @return List of transactions above threshold
      */
-    public List<Transaction> getLargeTransactions(BigDecimal threshold) {
-        return transactionRepository.findByAmountGreaterThan(threshold);
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> getLargeTransactions(BigDecimal threshold) {
+        return transactionRepository.findSummariesByAmountGreaterThan(threshold);
+    }
+    
+    /**
+     * Large transactions with only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getLargeTransactions(BigDecimal threshold, Set<TransactionField> fields) {
+        return transactionRepository.findFieldsByAmountGreaterThan(threshold, fields);
     }
     
     
@@ -217,8 +483,7 @@ public class TransactionService {
                 // 1. Business Validation (using your private helper)
                 validateDifferentAccounts(transaction);
 
-                // 2. ID and Default Generation
-                transaction.setTransactionId(generateTransactionId());
+                // 2. Default Generation
                 transaction.setCurrency("ZAR");
                 transaction.setTimestamp(LocalDateTime.now());
                 transaction.setStatus("completed");
@@ -229,14 +494,30 @@ public class TransactionService {
             }
         }
 
-        // 3. The Repository call happens here
+        // 3. Reserve IDs for the whole batch in one operation
+        List<String> ids = transactionIdGenerator.nextIds(validTransactions.size());
+        for (int i = 0; i < validTransactions.size(); i++) {
+            validTransactions.get(i).setTransactionId(ids.get(i));
+        }
+
+        // 4. The Repository call happens here (JDBC-batched inserts)
         List<Transaction> saved = transactionRepository.saveAll(validTransactions);
+        ledgerService.recordCreated(saved);
+        transactionStatisticsService.recordCreated(saved);
+        accountSummaryService.recordCreated(saved);
+        accountBalanceService.recordCreated(saved);
+        counterpartyService.recordCreated(saved);
+        statisticsCache.invalidate();
+        transactionVersions.recordChange(saved.stream()
+                .flatMap(t -> Stream.of(t.getFromAccount(), t.getToAccount()))
+                .collect(Collectors.toSet()));
+        recentTransactions.recordSaved(saved);
         
         List<String> createdIds = saved.stream()
                 .map(Transaction::getTransactionId)
                 .collect(Collectors.toList());
 
-        // 4. Build the report for the Controller
+        // 5. Build the report for the Controller
         Map<String, Object> result = new HashMap<>();
         result.put("successCount", createdIds.size());
         result.put("failureCount", errors.size());
@@ -250,12 +531,77 @@ public class TransactionService {
     
     /**
      * Search transactions by description
-     * Logic: Delegates the case-insensitive search to the repository
+     * 
+     * CHANGED: Full-text search on the GIN-indexed description_tsv column
+     * instead of LIKE '%q%' (a full table scan). Best match first; one
+     * extra row is read to know whether another page exists.
+     * 
+     * @param query Search text (words, "phrases", -excluded, or)
+     * @param cursor nextCursor of a previous page (null = first page)
+     * @param limit Page size
+     * @return Page of results with a next cursor (prevCursor is always null)
+     * @throws InvalidOperationException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage<TransactionSearchResult> searchTransactions(String query, String cursor, int limit) {
+        TransactionSearchCursor position = cursor == null ? null : TransactionSearchCursor.decode(cursor);
+        
+        List<TransactionSearchResult> results = new ArrayList<>(
+                transactionRepository.searchByDescription(query, position, limit + 1));
+        String nextCursor = null;
+        if (results.size() > limit) {
+            results.remove(limit);
+            TransactionSearchResult last = results.get(limit - 1);
+            nextCursor = new TransactionSearchCursor(last.rank(), last.transactionId()).encode();
+        }
+        return new TransactionPage<>(results, nextCursor, null);
+    }
+    
+    /**
+     * Search by description with only the requested fields
+     * 
+     * Same query as above (rank and transactionId are needed for the cursor),
+     * trimmed to the requested fields
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage<Map<String, Object>> searchTransactions(String query, String cursor, int limit,
+            Set<TransactionField> fields) {
+        TransactionPage<TransactionSearchResult> page = searchTransactions(query, cursor, limit);
+        List<Map<String, Object>> rows = page.transactions().stream()
+                .map(result -> result.select(fields))
+                .collect(Collectors.toList());
+        return new TransactionPage<>(rows, page.nextCursor(), null);
+    }
+    
+    /**
+     * Fuzzy description search: fragments and misspellings ("woolwrths"),
+     * most similar first
+     * 
+     * Uses the pg_trgm GiST index on description, nearest first, so only
+     * the returned rows are read however many match. Returns at most
+     * expense-tracker.search.similarity.max-results rows, whatever the limit.
+     * 
+     * @param query Search text
+     * @param limit Maximum number of results
+     * @return Results with rank = word similarity (0-1)
      */
-    public List<Transaction> searchTransactions(String query) {
-        return transactionRepository.findByDescriptionContainingIgnoreCase(query);
+    @Transactional(readOnly = true)
+    public List<TransactionSearchResult> searchTransactionsBySimilarity(String query, int limit) {
+        return transactionRepository.searchByDescriptionSimilarity(query, similarityThreshold,
+                Math.min(limit, similarityMaxResults));
+    }
+    
+    /**
+     * Fuzzy search with only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchTransactionsBySimilarity(String query, int limit,
+            Set<TransactionField> fields) {
+        return searchTransactionsBySimilarity(query, limit).stream()
+                .map(result -> result.select(fields))
+                .collect(Collectors.toList());
     }
-    // ==================== PRIVATE HELPER METHODS ====================
+        // ==================== PRIVATE HELPER METHODS ====================
 
     /**
      * Validate that from and to accounts are different
@@ -272,26 +618,11 @@ public class TransactionService {
      * Generate unique transaction ID
      * Format: TX0001, TX0002, TX0003...
      * 
-     * In production: Use UUID or database sequence
+     * Delegates to the configured TransactionIdGenerator
+     * (sequence blocks or snowflake - never a table scan)
      */
     private String generateTransactionId() {
-    	List<Transaction> allTransactions = transactionRepository.findAll();
-    	
-    	if(allTransactions.isEmpty()) { return "TX0001"; }
-    	
-    	// Find highest transaction number
-    	int maxNumber = allTransactions.stream()
-    			.map(Transaction::getTransactionId)
-    			.filter(id -> id != null && id.startsWith("TX"))
-    			.map(id -> id.substring(2))
-    			.filter(numStr -> numStr.matches("\\d+"))
-    			.mapToInt(Integer::parseInt)
-    			.max()
-    			.orElse(0);
-    	
-    	// Increment and format
-    	int nextNumber = maxNumber + 1;
-    	return "TX" + String.format("%04d", nextNumber);	
+    	return transactionIdGenerator.nextId();
     }
 
 }
@@ -0,0 +1,22 @@
+package com.fintech.expense_tracker;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * TransactionSummary - read-only row for list endpoints
+ *
+ * Filled straight from a JPQL constructor expression: no managed entity
+ * and no dirty-check snapshot. Narrower rows are available per request
+ * with ?fields=.
+ */
+public record TransactionSummary(
+		String transactionId,
+		String fromAccount,
+		String toAccount,
+		BigDecimal amount,
+		String currency,
+		String status,
+		LocalDateTime timestamp,
+		String description) {
+}
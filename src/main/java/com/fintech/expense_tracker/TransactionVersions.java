@@ -0,0 +1,95 @@
+package com.fintech.expense_tracker;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TransactionVersions - modification counters behind the read ETags
+ *
+ * How it works:
+ * - TransactionService calls recordChange() with the accounts of every
+ *   created, updated or deleted transaction
+ * - Once the database transaction commits, the global version and the
+ *   version of each account go up
+ * - ETags are built from these counters only, so a matching If-None-Match
+ *   is answered with 304 without a database query
+ *
+ * Account versions live in a fixed number of slots (account hash), so
+ * memory does not grow with the number of accounts; two accounts sharing
+ * a slot only cause an extra 200, never a wrong 304.
+ *
+ * Counters are per instance. Each ETag also carries a random instance
+ * token and the current expense-tracker.etag.max-age-ms window, so an
+ * ETag from another instance never matches and a write made elsewhere is
+ * seen within one window.
+ */
+
+@Component
+public class TransactionVersions {
+
+	private static final int ACCOUNT_SLOTS = 4096;
+
+	private final String instanceToken = UUID.randomUUID().toString().substring(0, 8);
+
+	private final AtomicLong globalVersion = new AtomicLong();
+
+	private final AtomicLongArray accountVersions = new AtomicLongArray(ACCOUNT_SLOTS);
+
+	@Value("${expense-tracker.etag.max-age-ms:30000}")
+	private long maxAgeMs;
+
+	/**
+	 * Bump the global version and the given accounts' versions once the
+	 * current database transaction commits (immediately when there is none)
+	 */
+	public void recordChange(Collection<String> accounts) {
+		Runnable bump = () -> {
+			for (String account : accounts) {
+				accountVersions.incrementAndGet(slot(account));
+			}
+			globalVersion.incrementAndGet();
+		};
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			bump.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				bump.run();
+			}
+		});
+	}
+
+	/**
+	 * Weak ETag that changes with any write
+	 */
+	public String globalEtag() {
+		return etag("g" + globalVersion.get());
+	}
+
+	/**
+	 * Weak ETag that changes with writes involving the account
+	 */
+	public String accountEtag(String account) {
+		int slot = slot(account);
+		return etag("a" + slot + "." + accountVersions.get(slot));
+	}
+
+	private String etag(String version) {
+		long window = maxAgeMs > 0 ? System.currentTimeMillis() / maxAgeMs : 0;
+		return "W/\"" + instanceToken + "-" + version + "-" + window + "\"";
+	}
+
+	private static int slot(String account) {
+		return Math.floorMod(account.hashCode(), ACCOUNT_SLOTS);
+	}
+}
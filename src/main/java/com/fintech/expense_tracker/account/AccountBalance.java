@@ -0,0 +1,47 @@
+package com.fintech.expense_tracker.account;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * AccountBalance - current balance of one account
+ *
+ * Maps to 'account_balance' table (one row per account).
+ * Balance = completed transactions received - completed transactions sent.
+ * Changed in the same database transaction as every transaction write
+ * and status change, so reading a balance is a single primary key read.
+ *
+ * Accounts have no opening balance, so a balance can be negative.
+ */
+
+@Entity
+@Table(name = "account_balance")
+public class AccountBalance {
+
+	@Id
+	@Column(name = "account_id", nullable = false, length = 20)
+	private String accountId;
+
+	@Column(name = "balance", nullable = false, precision = 19, scale = 2)
+	private BigDecimal balance;
+
+	@Column(name = "updated_at", nullable = false)
+	private LocalDateTime updatedAt;
+
+	// Required by JPA
+	protected AccountBalance() {
+	}
+
+	public String getAccountId() {
+		return accountId;
+	}
+
+	public BigDecimal getBalance() {
+		return balance;
+	}
+
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+}
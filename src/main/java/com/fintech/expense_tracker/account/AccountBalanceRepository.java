@@ -0,0 +1,67 @@
+package com.fintech.expense_tracker.account;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+/**
+ * AccountBalanceRepository - data access for current balances
+ *
+ * Balances only change through atomic SQL upserts ('balance = balance + ?'),
+ * never read-modify-write, so concurrent transfers on the same account
+ * cannot lose each other's changes.
+ */
+
+@Repository
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, String> {
+
+	/**
+	 * Add a signed amount to one balance (creates the row if missing)
+	 *
+	 * The upsert locks the row until the transaction ends; callers
+	 * apply their deltas in account order so they cannot deadlock.
+	 *
+	 * @param accountId Account ID
+	 * @param delta Change in balance (0 just makes sure the row exists)
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO account_balance AS b (account_id, balance, updated_at)
+			VALUES (:accountId, :delta, now())
+			ON CONFLICT (account_id) DO UPDATE SET
+			    balance = b.balance + EXCLUDED.balance,
+			    updated_at = EXCLUDED.updated_at
+			""", nativeQuery = true)
+	void applyDelta(@Param("accountId") String accountId, @Param("delta") BigDecimal delta);
+
+	/**
+	 * Block writers while the table is backfilled
+	 */
+	@Modifying
+	@Query(value = "LOCK TABLE account_balance IN EXCLUSIVE MODE", nativeQuery = true)
+	void lockForRebuild();
+
+	/**
+	 * Compute every balance from the transactions table
+	 * (one pass per side - only used when the table is empty)
+	 *
+	 * Every account that appears in a transaction gets a row,
+	 * only completed transactions move money.
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO account_balance (account_id, balance, updated_at)
+			SELECT account_id, SUM(CASE WHEN status = 'completed' THEN amount ELSE 0 END), now()
+			FROM (SELECT to_account AS account_id, amount, status
+			      FROM transactions
+			      UNION ALL
+			      SELECT from_account, -amount, status
+			      FROM transactions) legs
+			GROUP BY account_id
+			""", nativeQuery = true)
+	int backfill();
+}
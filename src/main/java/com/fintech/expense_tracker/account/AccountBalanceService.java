@@ -0,0 +1,152 @@
+package com.fintech.expense_tracker.account;
+
+import com.fintech.expense_tracker.Transaction;
+import com.fintech.expense_tracker.backfill.BackfillMarkerRepository;
+import com.fintech.expense_tracker.exceptions.ResourceNotFoundException;
+import com.fintech.expense_tracker.ledger.LedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * AccountBalanceService - real account balances
+ *
+ * Responsibilities:
+ * - Move money between balances when a transaction is completed,
+ *   and back when it leaves 'completed' (refund, failure, delete)
+ *   (called by TransactionService inside the same database transaction)
+ * - Post every move to the ledger, dated now (LedgerService), so as-of
+ *   balances and their checkpoints never have to be rewritten
+ * - Serve balances with a single primary key read
+ */
+
+@Service
+@Transactional
+public class AccountBalanceService {
+
+	private static final Logger log = LoggerFactory.getLogger(AccountBalanceService.class);
+
+	// Name in backfill_markers
+	private static final String BACKFILL = "account_balance";
+
+	static final String COMPLETED = "completed";
+
+	@Autowired
+	private AccountBalanceRepository accountBalanceRepository;
+
+	@Autowired
+	private BackfillMarkerRepository backfillMarkerRepository;
+
+	@Autowired
+	private LedgerService ledgerService;
+
+	// ==================== WRITE HOOKS ====================
+
+	/**
+	 * Apply new transactions (only completed ones move money,
+	 * but every account involved gets a balance row)
+	 */
+	public void recordCreated(List<Transaction> transactions) {
+		Map<String, BigDecimal> deltas = new TreeMap<>();
+		for (Transaction transaction : transactions) {
+			BigDecimal amount = moved(transaction.getStatus(), transaction.getAmount());
+			deltas.merge(transaction.getFromAccount(), amount.negate(), BigDecimal::add);
+			deltas.merge(transaction.getToAccount(), amount, BigDecimal::add);
+		}
+		apply(deltas);
+
+		List<Transaction> completed = transactions.stream()
+				.filter(transaction -> COMPLETED.equals(transaction.getStatus()))
+				.toList();
+		if (!completed.isEmpty()) {
+			ledgerService.recordMoved(completed, false);
+		}
+	}
+
+	/**
+	 * Apply a status change: completed -> refunded moves the money back,
+	 * pending -> completed moves it, anything else changes nothing
+	 */
+	public void recordStatusChange(Transaction transaction, String oldStatus) {
+		BigDecimal amount = moved(transaction.getStatus(), transaction.getAmount())
+				.subtract(moved(oldStatus, transaction.getAmount()));
+		if (amount.signum() == 0) {
+			return;
+		}
+		Map<String, BigDecimal> deltas = new TreeMap<>();
+		deltas.put(transaction.getFromAccount(), amount.negate());
+		deltas.put(transaction.getToAccount(), amount);
+		apply(deltas);
+		ledgerService.recordMoved(List.of(transaction), amount.signum() < 0);
+	}
+
+	/**
+	 * Take a deleted transaction out (a no-op unless it was completed)
+	 */
+	public void recordDeleted(Transaction transaction) {
+		BigDecimal amount = moved(transaction.getStatus(), transaction.getAmount());
+		if (amount.signum() == 0) {
+			return;
+		}
+		Map<String, BigDecimal> deltas = new TreeMap<>();
+		deltas.put(transaction.getFromAccount(), amount);
+		deltas.put(transaction.getToAccount(), amount.negate());
+		apply(deltas);
+		ledgerService.recordMoved(List.of(transaction), true);
+	}
+
+	/**
+	 * One upsert per account, in account order: two transfers between
+	 * the same accounts lock their rows in the same order, never crosswise
+	 */
+	private void apply(Map<String, BigDecimal> deltas) {
+		deltas.forEach(accountBalanceRepository::applyDelta);
+	}
+
+	private static BigDecimal moved(String status, BigDecimal amount) {
+		return COMPLETED.equals(status) ? amount : BigDecimal.ZERO;
+	}
+
+	// ==================== READ ====================
+
+	/**
+	 * Get the balance of one account
+	 *
+	 * @param accountId Account ID
+	 * @return Current balance
+	 * @throws ResourceNotFoundException if the account has no transactions
+	 */
+	@Transactional(readOnly = true)
+	public AccountBalance getBalance(String accountId) {
+		return accountBalanceRepository.findById(accountId)
+				.orElseThrow(() -> new ResourceNotFoundException("Account", accountId));
+	}
+
+	/**
+	 * Compute the balances from existing transactions the first time the
+	 * application starts with this feature (no-op once marked completed,
+	 * see BackfillMarker)
+	 *
+	 * Balances written before the marker exists are replaced by the rebuild.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillOnce() {
+		accountBalanceRepository.lockForRebuild();
+		if (backfillMarkerRepository.existsById(BACKFILL)) {
+			return;
+		}
+		accountBalanceRepository.deleteAllInBatch();
+		int rows = accountBalanceRepository.backfill();
+		backfillMarkerRepository.markCompleted(BACKFILL);
+		log.info("Backfilled {} account balances", rows);
+	}
+}
@@ -0,0 +1,73 @@
+package com.fintech.expense_tracker.account;
+
+import com.fintech.expense_tracker.exceptions.InvalidOperationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Account Controller - read-only account views
+ *
+ * Served from per-account tables kept up to date on every
+ * transaction write, never from a scan of the transactions table.
+ */
+@RestController
+@RequestMapping("/api/accounts")
+public class AccountController {
+
+	@Autowired
+	private AccountSummaryService accountSummaryService;
+
+	@Autowired
+	private CounterpartyService counterpartyService;
+
+	/**
+	 * GET - Account summary
+	 *
+	 * URL: GET /api/accounts/001/summary
+	 *
+	 * Returns inbound/outbound counts and totals plus
+	 * first/last activity time (one primary key read)
+	 *
+	 * @param id Account ID
+	 * @return Summary or 404 if the account has no transactions
+	 */
+	@GetMapping("/{id}/summary")
+	public ResponseEntity<AccountSummary> getSummary(@PathVariable String id) {
+
+		AccountSummary summary = accountSummaryService.getSummary(id);
+		return ResponseEntity.ok(summary);
+	}
+
+	/**
+	 * GET - Estimated distinct counterparties
+	 *
+	 * URL: GET /api/accounts/001/counterparties
+	 * URL: GET /api/accounts/001/counterparties?from=2026-01-01&to=2026-02-01
+	 *
+	 * Merges the account's daily HyperLogLog sketches for the window
+	 * (about 3% standard error, deleted transactions still count)
+	 *
+	 * @param id Account ID
+	 * @param from First day, inclusive (optional)
+	 * @param to Last day, exclusive (optional)
+	 * @return Distinct senders, recipients and both combined
+	 */
+	@GetMapping("/{id}/counterparties")
+	public ResponseEntity<Map<String, Object>> getCounterparties(
+			@PathVariable String id,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+		if (from != null && to != null && !from.isBefore(to)) {
+			throw new InvalidOperationException("'from' must be before 'to'");
+		}
+
+		Map<String, Object> counterparties = counterpartyService.getCounterparties(id, from, to);
+		return ResponseEntity.ok(counterparties);
+	}
+}
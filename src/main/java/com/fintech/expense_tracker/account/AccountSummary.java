@@ -0,0 +1,83 @@
+package com.fintech.expense_tracker.account;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * AccountSummary - running totals for one account
+ *
+ * Maps to 'account_summary' table (one row per account).
+ * Updated in the same database transaction as every transaction write,
+ * so per-account counts and totals are a single primary key read.
+ *
+ * Inbound = account was to_account, outbound = account was from_account.
+ * First/last activity record when the account was active; they are
+ * not moved back when a transaction is deleted.
+ */
+
+@Entity
+@Table(name = "account_summary")
+public class AccountSummary {
+
+	@Id
+	@Column(name = "account_id", nullable = false, length = 20)
+	private String accountId;
+
+	@Column(name = "inbound_count", nullable = false)
+	private long inboundCount;
+
+	@Column(name = "inbound_amount", nullable = false, precision = 19, scale = 2)
+	private BigDecimal inboundAmount;
+
+	@Column(name = "outbound_count", nullable = false)
+	private long outboundCount;
+
+	@Column(name = "outbound_amount", nullable = false, precision = 19, scale = 2)
+	private BigDecimal outboundAmount;
+
+	@Column(name = "first_activity")
+	private LocalDateTime firstActivity;
+
+	@Column(name = "last_activity")
+	private LocalDateTime lastActivity;
+
+	// Required by JPA
+	protected AccountSummary() {
+	}
+
+	public String getAccountId() {
+		return accountId;
+	}
+
+	public long getInboundCount() {
+		return inboundCount;
+	}
+
+	public BigDecimal getInboundAmount() {
+		return inboundAmount;
+	}
+
+	public long getOutboundCount() {
+		return outboundCount;
+	}
+
+	public BigDecimal getOutboundAmount() {
+		return outboundAmount;
+	}
+
+	public LocalDateTime getFirstActivity() {
+		return firstActivity;
+	}
+
+	public LocalDateTime getLastActivity() {
+		return lastActivity;
+	}
+
+	/**
+	 * Total transactions involving this account (sent + received)
+	 */
+	public long getTransactionCount() {
+		return inboundCount + outboundCount;
+	}
+}
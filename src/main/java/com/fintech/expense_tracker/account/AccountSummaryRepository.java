@@ -0,0 +1,83 @@
+package com.fintech.expense_tracker.account;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * AccountSummaryRepository - data access for per-account running totals
+ *
+ * Updates are atomic SQL upserts, so concurrent writes to the same
+ * account never lose each other's changes.
+ */
+
+@Repository
+public interface AccountSummaryRepository extends JpaRepository<AccountSummary, String> {
+
+	/**
+	 * Add deltas to one account's totals (creates the row if missing)
+	 *
+	 * @param accountId Account ID
+	 * @param inboundCount Change in received transactions
+	 * @param inboundAmount Change in received amount
+	 * @param outboundCount Change in sent transactions
+	 * @param outboundAmount Change in sent amount
+	 * @param firstActivity Earliest activity in this change (null = unchanged)
+	 * @param lastActivity Latest activity in this change (null = unchanged)
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO account_summary AS s
+			    (account_id, inbound_count, inbound_amount, outbound_count, outbound_amount,
+			     first_activity, last_activity)
+			VALUES (:accountId, :inboundCount, :inboundAmount, :outboundCount, :outboundAmount,
+			        :firstActivity, :lastActivity)
+			ON CONFLICT (account_id) DO UPDATE SET
+			    inbound_count = s.inbound_count + EXCLUDED.inbound_count,
+			    inbound_amount = s.inbound_amount + EXCLUDED.inbound_amount,
+			    outbound_count = s.outbound_count + EXCLUDED.outbound_count,
+			    outbound_amount = s.outbound_amount + EXCLUDED.outbound_amount,
+			    first_activity = LEAST(s.first_activity, EXCLUDED.first_activity),
+			    last_activity = GREATEST(s.last_activity, EXCLUDED.last_activity)
+			""", nativeQuery = true)
+	void applyDelta(@Param("accountId") String accountId,
+			@Param("inboundCount") long inboundCount,
+			@Param("inboundAmount") BigDecimal inboundAmount,
+			@Param("outboundCount") long outboundCount,
+			@Param("outboundAmount") BigDecimal outboundAmount,
+			@Param("firstActivity") LocalDateTime firstActivity,
+			@Param("lastActivity") LocalDateTime lastActivity);
+
+	/**
+	 * Block writers while the table is backfilled
+	 */
+	@Modifying
+	@Query(value = "LOCK TABLE account_summary IN EXCLUSIVE MODE", nativeQuery = true)
+	void lockForRebuild();
+
+	/**
+	 * Fill the summaries from the transactions table
+	 * (one pass per side - only used when the table is empty)
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO account_summary
+			    (account_id, inbound_count, inbound_amount, outbound_count, outbound_amount,
+			     first_activity, last_activity)
+			SELECT account_id, SUM(in_count), SUM(in_amount), SUM(out_count), SUM(out_amount),
+			       MIN(ts), MAX(ts)
+			FROM (SELECT to_account AS account_id, 1 AS in_count, amount AS in_amount,
+			             0 AS out_count, 0 AS out_amount, timestamp AS ts
+			      FROM transactions
+			      UNION ALL
+			      SELECT from_account, 0, 0, 1, amount, timestamp
+			      FROM transactions) legs
+			GROUP BY account_id
+			""", nativeQuery = true)
+	int backfill();
+}
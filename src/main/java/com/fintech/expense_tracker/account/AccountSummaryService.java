@@ -0,0 +1,170 @@
+package com.fintech.expense_tracker.account;
+
+import com.fintech.expense_tracker.Transaction;
+import com.fintech.expense_tracker.backfill.BackfillMarkerRepository;
+import com.fintech.expense_tracker.exceptions.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * AccountSummaryService - per-account running totals
+ *
+ * Responsibilities:
+ * - Apply inbound/outbound deltas on every transaction write
+ *   (called by TransactionService inside the same database transaction)
+ * - Serve per-account summaries with a single primary key read
+ */
+
+@Service
+@Transactional
+public class AccountSummaryService {
+
+	private static final Logger log = LoggerFactory.getLogger(AccountSummaryService.class);
+
+	// Name in backfill_markers
+	private static final String BACKFILL = "account_summary";
+
+	@Autowired
+	private AccountSummaryRepository accountSummaryRepository;
+
+	@Autowired
+	private BackfillMarkerRepository backfillMarkerRepository;
+
+	/**
+	 * Add new transactions to the sender and receiver summaries
+	 * One upsert per distinct account, not two per transaction
+	 */
+	public void recordCreated(List<Transaction> transactions) {
+		Map<String, Delta> deltas = new TreeMap<>();
+
+		for (Transaction transaction : transactions) {
+			deltas.computeIfAbsent(transaction.getFromAccount(), id -> new Delta())
+					.outbound(transaction.getAmount(), transaction.getTimestamp());
+			deltas.computeIfAbsent(transaction.getToAccount(), id -> new Delta())
+					.inbound(transaction.getAmount(), transaction.getTimestamp());
+		}
+
+		apply(deltas);
+	}
+
+	/**
+	 * Take a deleted transaction out of both summaries
+	 * (activity times stay as they are)
+	 */
+	public void recordDeleted(Transaction transaction) {
+		Map<String, Delta> deltas = new TreeMap<>();
+		deltas.computeIfAbsent(transaction.getFromAccount(), id -> new Delta())
+				.outboundRemoved(transaction.getAmount());
+		deltas.computeIfAbsent(transaction.getToAccount(), id -> new Delta())
+				.inboundRemoved(transaction.getAmount());
+		apply(deltas);
+	}
+
+	/**
+	 * One upsert per account, in account order: two transfers between
+	 * the same accounts lock their rows in the same order, never crosswise
+	 */
+	private void apply(Map<String, Delta> deltas) {
+		deltas.forEach((accountId, delta) -> accountSummaryRepository.applyDelta(accountId,
+				delta.inboundCount, delta.inboundAmount,
+				delta.outboundCount, delta.outboundAmount,
+				delta.firstActivity, delta.lastActivity));
+	}
+
+	/**
+	 * Get the summary of one account
+	 *
+	 * @param accountId Account ID
+	 * @return Running totals
+	 * @throws ResourceNotFoundException if the account has no transactions
+	 */
+	@Transactional(readOnly = true)
+	public AccountSummary getSummary(String accountId) {
+		return accountSummaryRepository.findById(accountId)
+				.orElseThrow(() -> new ResourceNotFoundException("Account", accountId));
+	}
+
+	/**
+	 * Number of transactions involving an account (0 if unknown)
+	 */
+	@Transactional(readOnly = true)
+	public long getTransactionCount(String accountId) {
+		return accountSummaryRepository.findById(accountId)
+				.map(AccountSummary::getTransactionCount)
+				.orElse(0L);
+	}
+
+	/**
+	 * Fill the summaries from existing transactions the first time the
+	 * application starts with this feature (no-op once marked completed,
+	 * see BackfillMarker)
+	 *
+	 * Summaries written before the marker exists are replaced by the rebuild.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillOnce() {
+		accountSummaryRepository.lockForRebuild();
+		if (backfillMarkerRepository.existsById(BACKFILL)) {
+			return;
+		}
+		accountSummaryRepository.deleteAllInBatch();
+		int rows = accountSummaryRepository.backfill();
+		backfillMarkerRepository.markCompleted(BACKFILL);
+		log.info("Backfilled {} account summaries", rows);
+	}
+
+	/**
+	 * Accumulated change for one account within a batch
+	 */
+	private static final class Delta {
+
+		long inboundCount;
+		BigDecimal inboundAmount = BigDecimal.ZERO;
+		long outboundCount;
+		BigDecimal outboundAmount = BigDecimal.ZERO;
+		LocalDateTime firstActivity;
+		LocalDateTime lastActivity;
+
+		void inbound(BigDecimal amount, LocalDateTime time) {
+			inboundCount++;
+			inboundAmount = inboundAmount.add(amount);
+			touch(time);
+		}
+
+		void outbound(BigDecimal amount, LocalDateTime time) {
+			outboundCount++;
+			outboundAmount = outboundAmount.add(amount);
+			touch(time);
+		}
+
+		void inboundRemoved(BigDecimal amount) {
+			inboundCount--;
+			inboundAmount = inboundAmount.subtract(amount);
+		}
+
+		void outboundRemoved(BigDecimal amount) {
+			outboundCount--;
+			outboundAmount = outboundAmount.subtract(amount);
+		}
+
+		private void touch(LocalDateTime time) {
+			if (firstActivity == null || time.isBefore(firstActivity)) {
+				firstActivity = time;
+			}
+			if (lastActivity == null || time.isAfter(lastActivity)) {
+				lastActivity = time;
+			}
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package com.fintech.expense_tracker.account;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of an account at a point in time
+ *
+ * @param checkpointAsOf Checkpoint the ledger was replayed from (null = replayed from the start)
+ */
+public record BalanceAsOf(String accountId, LocalDateTime asOf, BigDecimal balance, LocalDateTime checkpointAsOf) {
+}
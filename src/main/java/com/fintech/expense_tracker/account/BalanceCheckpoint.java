@@ -0,0 +1,91 @@
+package com.fintech.expense_tracker.account;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * BalanceCheckpoint - balance of one account at a point in time
+ *
+ * Maps to 'balance_checkpoints' table, keyed by (account_id, as_of).
+ * The balance covers every ledger posting with posted_at <= as_of, so an
+ * as-of query only replays the postings after the nearest checkpoint.
+ * Rows are never updated once written.
+ */
+
+@Entity
+@Table(name = "balance_checkpoints")
+public class BalanceCheckpoint {
+
+	@EmbeddedId
+	private Key id;
+
+	@Column(name = "balance", nullable = false, precision = 19, scale = 2)
+	private BigDecimal balance;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+
+	// Required by JPA
+	protected BalanceCheckpoint() {
+	}
+
+	public Key getId() {
+		return id;
+	}
+
+	public LocalDateTime getAsOf() {
+		return id.getAsOf();
+	}
+
+	public BigDecimal getBalance() {
+		return balance;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	/**
+	 * Composite primary key (account_id, as_of)
+	 */
+	@Embeddable
+	public static class Key implements Serializable {
+
+		@Column(name = "account_id", nullable = false, length = 20)
+		private String accountId;
+
+		@Column(name = "as_of", nullable = false)
+		private LocalDateTime asOf;
+
+		protected Key() {
+		}
+
+		public String getAccountId() {
+			return accountId;
+		}
+
+		public LocalDateTime getAsOf() {
+			return asOf;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key other)) {
+				return false;
+			}
+			return Objects.equals(accountId, other.accountId)
+					&& Objects.equals(asOf, other.asOf);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(accountId, asOf);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.fintech.expense_tracker.account;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * BalanceCheckpointRepository - data access for point-in-time balances
+ *
+ * Every lookup is a range read on the primary key (account_id, as_of).
+ */
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, BalanceCheckpoint.Key> {
+
+	/**
+	 * Newest checkpoints of an account at or before a time
+	 * (call with Limit.of(1) for the nearest one)
+	 */
+	@Query("select c from BalanceCheckpoint c where c.id.accountId = :accountId and c.id.asOf <= :asOf "
+			+ "order by c.id.asOf desc")
+	List<BalanceCheckpoint> findLatest(@Param("accountId") String accountId,
+			@Param("asOf") LocalDateTime asOf,
+			Limit limit);
+
+	/**
+	 * Store a checkpoint unless one already exists at that time
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO balance_checkpoints (account_id, as_of, balance, created_at)
+			VALUES (:accountId, :asOf, :balance, now())
+			ON CONFLICT (account_id, as_of) DO NOTHING
+			""", nativeQuery = true)
+	void insertIfAbsent(@Param("accountId") String accountId,
+			@Param("asOf") LocalDateTime asOf,
+			@Param("balance") BigDecimal balance);
+}
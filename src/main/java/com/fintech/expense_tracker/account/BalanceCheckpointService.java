@@ -0,0 +1,158 @@
+package com.fintech.expense_tracker.account;
+
+import com.fintech.expense_tracker.exceptions.ResourceNotFoundException;
+import com.fintech.expense_tracker.ledger.LedgerPostingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * BalanceCheckpointService - point-in-time (as-of) balances
+ *
+ * How it works:
+ * - Every expense-tracker.balance.checkpoint-interval-ms, each account that
+ *   collected checkpoint-every ledger postings since its last checkpoint gets
+ *   a new one: last checkpoint + postings since, as of an hour ago
+ * - An as-of query loads the nearest checkpoint at or before the requested
+ *   time and replays only the postings after it, so its cost is bounded
+ *   by the checkpoint interval, not the account's history
+ *
+ * CHANGED: as-of balances used to follow each transaction's current
+ * status, so a refund rewrote every balance (and checkpoint) since the
+ * transaction. Postings are now dated when the money moved and a refund
+ * is a reversal posting dated when it happens (LedgerService.recordMoved):
+ * the balance as of a time is what /balance showed then, and checkpoints
+ * are never changed once written.
+ */
+
+@Service
+public class BalanceCheckpointService {
+
+	private static final Logger log = LoggerFactory.getLogger(BalanceCheckpointService.class);
+
+	/**
+	 * Checkpoints are only taken this far in the past, so postings still
+	 * being committed (dated a moment before their commit) are never
+	 * missed by one
+	 */
+	static final Duration SETTLE = Duration.ofHours(1);
+
+	// Before any transaction: replay start when an account has no checkpoint
+	private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+	@Autowired
+	private BalanceCheckpointRepository balanceCheckpointRepository;
+
+	@Autowired
+	private AccountBalanceRepository accountBalanceRepository;
+
+	@Autowired
+	private LedgerPostingRepository ledgerPostingRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${expense-tracker.balance.checkpoint-every:1000}")
+	private long checkpointEvery;
+
+	// Horizon of this instance's previous run (null = not run yet)
+	private volatile LocalDateTime lastHorizon;
+
+	// ==================== CHECKPOINTS ====================
+
+	/**
+	 * Checkpoint every account that was active since the previous run
+	 * (while no checkpoint exists at all: every account)
+	 *
+	 * One short database transaction per account.
+	 */
+	@Scheduled(initialDelayString = "${expense-tracker.balance.checkpoint-interval-ms:3600000}",
+			fixedDelayString = "${expense-tracker.balance.checkpoint-interval-ms:3600000}")
+	public void createCheckpoints() {
+		LocalDateTime horizon = LocalDateTime.now().minus(SETTLE).truncatedTo(ChronoUnit.MINUTES);
+		LocalDateTime since = lastHorizon;
+		if (since == null) {
+			since = balanceCheckpointRepository.findAll(PageRequest.of(0, 1)).isEmpty()
+					? BEGINNING
+					: horizon.minusDays(1);
+		}
+		if (!since.isBefore(horizon)) {
+			return;
+		}
+
+		List<String> accounts = ledgerPostingRepository.findActiveAccounts(since, horizon);
+		int created = 0;
+		for (String accountId : accounts) {
+			Boolean checkpointed = transactionTemplate.execute(status -> checkpoint(accountId, horizon));
+			if (Boolean.TRUE.equals(checkpointed)) {
+				created++;
+			}
+		}
+		lastHorizon = horizon;
+		log.info("Created {} balance checkpoints as of {} ({} active accounts)", created, horizon, accounts.size());
+	}
+
+	/**
+	 * Take a checkpoint of one account if it has enough new postings
+	 */
+	private boolean checkpoint(String accountId, LocalDateTime horizon) {
+		Optional<BalanceCheckpoint> last = nearest(accountId, horizon);
+		LocalDateTime after = last.map(BalanceCheckpoint::getAsOf).orElse(BEGINNING);
+		if (!after.isBefore(horizon)
+				|| ledgerPostingRepository.countPostings(accountId, after, horizon) < checkpointEvery) {
+			return false;
+		}
+
+		BigDecimal balance = last.map(BalanceCheckpoint::getBalance).orElse(BigDecimal.ZERO)
+				.add(ledgerPostingRepository.sumPosted(accountId, after, horizon));
+		balanceCheckpointRepository.insertIfAbsent(accountId, horizon, balance);
+		return true;
+	}
+
+	// ==================== READ ====================
+
+	/**
+	 * Balance of an account at a point in time
+	 *
+	 * Nearest checkpoint + ledger postings in (checkpoint, asOf].
+	 * Runs in one REPEATABLE READ snapshot so the checkpoint and the
+	 * replayed legs agree.
+	 *
+	 * @param accountId Account ID
+	 * @param asOf Point in time, inclusive
+	 * @return Balance and the checkpoint it was replayed from
+	 * @throws ResourceNotFoundException if the account has no transactions
+	 */
+	@Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+	public BalanceAsOf getBalanceAsOf(String accountId, LocalDateTime asOf) {
+		if (!accountBalanceRepository.existsById(accountId)) {
+			throw new ResourceNotFoundException("Account", accountId);
+		}
+
+		Optional<BalanceCheckpoint> checkpoint = nearest(accountId, asOf);
+		LocalDateTime after = checkpoint.map(BalanceCheckpoint::getAsOf).orElse(BEGINNING);
+		BigDecimal balance = checkpoint.map(BalanceCheckpoint::getBalance).orElse(BigDecimal.ZERO)
+				.add(ledgerPostingRepository.sumPosted(accountId, after, asOf));
+
+		return new BalanceAsOf(accountId, asOf, balance, checkpoint.map(BalanceCheckpoint::getAsOf).orElse(null));
+	}
+
+	private Optional<BalanceCheckpoint> nearest(String accountId, LocalDateTime asOf) {
+		return balanceCheckpointRepository.findLatest(accountId, asOf, Limit.of(1)).stream().findFirst();
+	}
+}
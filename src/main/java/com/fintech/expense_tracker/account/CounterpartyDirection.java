@@ -0,0 +1,12 @@
+package com.fintech.expense_tracker.account;
+
+/**
+ * CounterpartyDirection - which side of a transfer the counterparty was on
+ *
+ * INBOUND  = counterparty sent money to the account (distinct senders)
+ * OUTBOUND = account sent money to the counterparty (distinct recipients)
+ */
+public enum CounterpartyDirection {
+	INBOUND,
+	OUTBOUND
+}
@@ -0,0 +1,254 @@
+package com.fintech.expense_tracker.account;
+
+import com.fintech.expense_tracker.Transaction;
+import com.fintech.expense_tracker.backfill.BackfillMarkerRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CounterpartyService - distinct counterparties per account
+ *
+ * How it works:
+ * - Every committed transaction adds the receiver to the sender's OUTBOUND
+ *   sketch and the sender to the receiver's INBOUND sketch for that day
+ * - Every expense-tracker.sketch.flush-interval-ms the in-memory deltas are
+ *   merged into 'account_counterparty_sketches' under a row lock
+ * - Reads merge the daily sketches of the requested window
+ *
+ * 1 KB per account, direction and active day instead of a COUNT(DISTINCT)
+ * over the transactions table. Deleted transactions are not taken out:
+ * a HyperLogLog cannot forget a value, so estimates count every
+ * counterparty ever seen in the window.
+ */
+
+@Service
+public class CounterpartyService {
+
+	private static final Logger log = LoggerFactory.getLogger(CounterpartyService.class);
+
+	// Name in backfill_markers
+	private static final String BACKFILL = "account_counterparty_sketches";
+
+	// Backfill writes its sketches every this many transactions
+	private static final int BACKFILL_CHUNK = 10_000;
+
+	private static final Comparator<SketchKey> KEY_ORDER = Comparator
+			.comparing(SketchKey::accountId)
+			.thenComparing(SketchKey::direction)
+			.thenComparing(SketchKey::day);
+
+	@Autowired
+	private CounterpartySketchRepository counterpartySketchRepository;
+
+	@Autowired
+	private BackfillMarkerRepository backfillMarkerRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Unflushed changes of this instance
+	private final ConcurrentHashMap<SketchKey, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+	// ==================== WRITE HOOKS ====================
+
+	public void recordCreated(List<Transaction> transactions) {
+		List<Transaction> created = List.copyOf(transactions);
+		afterCommit(() -> {
+			for (Transaction transaction : created) {
+				LocalDate day = transaction.getTimestamp().toLocalDate();
+				add(new SketchKey(transaction.getFromAccount(), CounterpartyDirection.OUTBOUND, day),
+						transaction.getToAccount());
+				add(new SketchKey(transaction.getToAccount(), CounterpartyDirection.INBOUND, day),
+						transaction.getFromAccount());
+			}
+		});
+	}
+
+	/**
+	 * Only touch the sketches once the database change is committed,
+	 * so rolled-back writes never count as counterparties
+	 */
+	private void afterCommit(Runnable change) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			change.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				change.run();
+			}
+		});
+	}
+
+	private void add(SketchKey key, String counterparty) {
+		// compute() holds the key's lock, so flush() never drains a sketch mid-update
+		pending.compute(key, (k, sketch) -> {
+			HyperLogLog target = sketch == null ? new HyperLogLog() : sketch;
+			target.add(counterparty);
+			return target;
+		});
+	}
+
+	// ==================== PERSISTENCE ====================
+
+	/**
+	 * Merge unflushed deltas into the database rows
+	 *
+	 * Keys are locked in sorted order so two instances flushing at the
+	 * same time cannot deadlock. If the flush fails the deltas are put back.
+	 */
+	@Scheduled(fixedDelayString = "${expense-tracker.sketch.flush-interval-ms:10000}")
+	@PreDestroy
+	public void flush() {
+		Map<SketchKey, HyperLogLog> drained = new TreeMap<>(KEY_ORDER);
+		for (SketchKey key : pending.keySet()) {
+			HyperLogLog delta = pending.remove(key);
+			if (delta != null && !delta.isEmpty()) {
+				drained.put(key, delta);
+			}
+		}
+		if (drained.isEmpty()) {
+			return;
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> write(drained));
+		} catch (RuntimeException e) {
+			log.warn("Could not flush {} counterparty sketches, will retry: {}", drained.size(), e.getMessage());
+			drained.forEach((key, delta) -> pending.merge(key, delta, (current, restored) -> {
+				current.merge(restored);
+				return current;
+			}));
+		}
+	}
+
+	private void write(Map<SketchKey, HyperLogLog> sketches) {
+		sketches.forEach((key, delta) -> {
+			counterpartySketchRepository.insertIfAbsent(key.accountId(), key.direction().name(),
+					key.day(), new HyperLogLog().toBytes());
+			CounterpartySketch row = counterpartySketchRepository
+					.findForUpdate(key.accountId(), key.direction(), key.day())
+					.orElseThrow();
+			HyperLogLog merged = row.getSketch();
+			merged.merge(delta);
+			row.setSketch(merged);
+		});
+	}
+
+	/**
+	 * Build the sketches from existing transactions the first time the
+	 * application starts with this feature (no-op once marked completed,
+	 * see BackfillMarker)
+	 *
+	 * Reads only the two accounts and the timestamp, and writes every
+	 * BACKFILL_CHUNK rows so memory stays bounded. Adding a counterparty
+	 * twice changes nothing, so sketches flushed before the backfill - or
+	 * racing it - are merged into, not cleared.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillOnce() {
+		transactionTemplate.executeWithoutResult(status -> {
+			counterpartySketchRepository.lockForRebuild();
+			if (backfillMarkerRepository.existsById(BACKFILL)) {
+				return;
+			}
+
+			Map<SketchKey, HyperLogLog> sketches = new TreeMap<>(KEY_ORDER);
+			long[] rows = {0};
+			jdbcTemplate.query("SELECT from_account, to_account, timestamp FROM transactions", rs -> {
+				String from = rs.getString("from_account");
+				String to = rs.getString("to_account");
+				LocalDate day = rs.getTimestamp("timestamp").toLocalDateTime().toLocalDate();
+				sketches.computeIfAbsent(new SketchKey(from, CounterpartyDirection.OUTBOUND, day),
+						k -> new HyperLogLog()).add(to);
+				sketches.computeIfAbsent(new SketchKey(to, CounterpartyDirection.INBOUND, day),
+						k -> new HyperLogLog()).add(from);
+				if (++rows[0] % BACKFILL_CHUNK == 0) {
+					write(sketches);
+					sketches.clear();
+				}
+			});
+			write(sketches);
+			backfillMarkerRepository.markCompleted(BACKFILL);
+			log.info("Backfilled counterparty sketches from {} transactions", rows[0]);
+		});
+	}
+
+	// ==================== READ ====================
+
+	/**
+	 * Estimated distinct counterparties of an account
+	 *
+	 * @param accountId Account ID
+	 * @param from First day, inclusive (optional - from the first transaction)
+	 * @param to Last day, exclusive (optional - up to and including today)
+	 * @return Inbound, outbound and combined estimates with the standard error
+	 */
+	public Map<String, Object> getCounterparties(String accountId, LocalDate from, LocalDate to) {
+		LocalDate firstDay = from == null ? LocalDate.EPOCH : from;
+		LocalDate endDay = to == null ? LocalDate.now().plusDays(1) : to;
+
+		Map<CounterpartyDirection, HyperLogLog> byDirection = new EnumMap<>(CounterpartyDirection.class);
+		for (CounterpartyDirection direction : CounterpartyDirection.values()) {
+			byDirection.put(direction, new HyperLogLog());
+		}
+
+		for (CounterpartySketch row : counterpartySketchRepository.findInRange(accountId, firstDay, endDay)) {
+			byDirection.get(row.getId().getDirection()).merge(row.getSketch());
+		}
+		for (SketchKey key : pending.keySet()) {
+			if (key.accountId().equals(accountId)
+					&& !key.day().isBefore(firstDay) && key.day().isBefore(endDay)) {
+				byDirection.get(key.direction()).merge(snapshot(key));
+			}
+		}
+
+		HyperLogLog combined = new HyperLogLog();
+		byDirection.values().forEach(combined::merge);
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("accountId", accountId);
+		result.put("fromDay", from);
+		result.put("toDay", to);
+		result.put("distinctSenders", byDirection.get(CounterpartyDirection.INBOUND).estimate());
+		result.put("distinctRecipients", byDirection.get(CounterpartyDirection.OUTBOUND).estimate());
+		result.put("distinctCounterparties", combined.estimate());
+		result.put("standardError", HyperLogLog.STANDARD_ERROR);
+		return result;
+	}
+
+	private HyperLogLog snapshot(SketchKey key) {
+		HyperLogLog[] copy = {new HyperLogLog()};
+		pending.computeIfPresent(key, (k, delta) -> {
+			copy[0] = delta.copy();
+			return delta;
+		});
+		return copy[0];
+	}
+
+	private record SketchKey(String accountId, CounterpartyDirection direction, LocalDate day) {
+	}
+}
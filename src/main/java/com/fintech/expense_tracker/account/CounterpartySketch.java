@@ -0,0 +1,95 @@
+package com.fintech.expense_tracker.account;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * CounterpartySketch - HyperLogLog of one account's counterparties for one day
+ *
+ * Maps to 'account_counterparty_sketches' table, keyed by
+ * (account_id, direction, bucket_day). Days merge into any window.
+ */
+
+@Entity
+@Table(name = "account_counterparty_sketches")
+public class CounterpartySketch {
+
+	@EmbeddedId
+	private Key id;
+
+	@Column(name = "registers", nullable = false)
+	private byte[] registers;
+
+	@Column(name = "updated_at", nullable = false)
+	private LocalDateTime updatedAt;
+
+	// Required by JPA
+	protected CounterpartySketch() {
+	}
+
+	public Key getId() {
+		return id;
+	}
+
+	public HyperLogLog getSketch() {
+		return HyperLogLog.fromBytes(registers);
+	}
+
+	public void setSketch(HyperLogLog sketch) {
+		this.registers = sketch.toBytes();
+		this.updatedAt = LocalDateTime.now();
+	}
+
+	/**
+	 * Composite primary key (account_id, direction, bucket_day)
+	 */
+	@Embeddable
+	public static class Key implements Serializable {
+
+		@Column(name = "account_id", nullable = false, length = 20)
+		private String accountId;
+
+		@Enumerated(EnumType.STRING)
+		@Column(name = "direction", nullable = false, length = 8)
+		private CounterpartyDirection direction;
+
+		@Column(name = "bucket_day", nullable = false)
+		private LocalDate bucketDay;
+
+		protected Key() {
+		}
+
+		public String getAccountId() {
+			return accountId;
+		}
+
+		public CounterpartyDirection getDirection() {
+			return direction;
+		}
+
+		public LocalDate getBucketDay() {
+			return bucketDay;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key other)) {
+				return false;
+			}
+			return Objects.equals(accountId, other.accountId)
+					&& direction == other.direction
+					&& Objects.equals(bucketDay, other.bucketDay);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(accountId, direction, bucketDay);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.fintech.expense_tracker.account;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CounterpartySketchRepository - data access for per-account HyperLogLogs
+ */
+
+@Repository
+public interface CounterpartySketchRepository extends JpaRepository<CounterpartySketch, CounterpartySketch.Key> {
+
+	/**
+	 * Create an empty sketch row unless it already exists
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO account_counterparty_sketches (account_id, direction, bucket_day, registers, updated_at)
+			VALUES (:accountId, :direction, :bucketDay, :registers, now())
+			ON CONFLICT (account_id, direction, bucket_day) DO NOTHING
+			""", nativeQuery = true)
+	void insertIfAbsent(@Param("accountId") String accountId,
+			@Param("direction") String direction,
+			@Param("bucketDay") LocalDate bucketDay,
+			@Param("registers") byte[] registers);
+
+	/**
+	 * Load a sketch row and lock it until the transaction ends
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from CounterpartySketch s where s.id.accountId = :accountId "
+			+ "and s.id.direction = :direction and s.id.bucketDay = :bucketDay")
+	Optional<CounterpartySketch> findForUpdate(@Param("accountId") String accountId,
+			@Param("direction") CounterpartyDirection direction,
+			@Param("bucketDay") LocalDate bucketDay);
+
+	/**
+	 * Every daily sketch of an account in [from, to)
+	 */
+	@Query("select s from CounterpartySketch s where s.id.accountId = :accountId "
+			+ "and s.id.bucketDay >= :from and s.id.bucketDay < :to")
+	List<CounterpartySketch> findInRange(@Param("accountId") String accountId,
+			@Param("from") LocalDate from,
+			@Param("to") LocalDate to);
+
+	/**
+	 * Block flushes while the sketches are backfilled
+	 */
+	@Modifying
+	@Query(value = "LOCK TABLE account_counterparty_sketches IN EXCLUSIVE MODE", nativeQuery = true)
+	void lockForRebuild();
+}
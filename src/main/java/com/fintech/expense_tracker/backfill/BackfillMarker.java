@@ -0,0 +1,38 @@
+package com.fintech.expense_tracker.backfill;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * BackfillMarker - records that a one-off backfill has completed
+ *
+ * Maps to 'backfill_markers' table (one row per backfill, by name).
+ * Written in the same database transaction as the backfill itself, so
+ * the row exists exactly when the backfilled data does. Whether a table
+ * is empty says nothing: writes made before the backfill runs (by
+ * another instance, or by an earlier request) fill it too.
+ */
+
+@Entity
+@Table(name = "backfill_markers")
+public class BackfillMarker {
+
+	@Id
+	@Column(name = "name", nullable = false, length = 50)
+	private String name;
+
+	@Column(name = "completed_at", nullable = false)
+	private LocalDateTime completedAt;
+
+	// Required by JPA
+	protected BackfillMarker() {
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public LocalDateTime getCompletedAt() {
+		return completedAt;
+	}
+}
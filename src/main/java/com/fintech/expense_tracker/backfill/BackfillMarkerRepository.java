@@ -0,0 +1,31 @@
+package com.fintech.expense_tracker.backfill;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * BackfillMarkerRepository - data access for completed backfills
+ *
+ * Usage in a backfill (all in one database transaction):
+ * 1. Lock the target table (writers wait)
+ * 2. existsById(name) - done already, nothing to do
+ * 3. Clear the table, rebuild it from the transactions table
+ * 4. markCompleted(name)
+ */
+
+@Repository
+public interface BackfillMarkerRepository extends JpaRepository<BackfillMarker, String> {
+
+	/**
+	 * Record a backfill as completed
+	 *
+	 * Generated SQL:
+	 * INSERT INTO backfill_markers (name, completed_at) VALUES (?, now())
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO backfill_markers (name, completed_at) VALUES (:name, now())", nativeQuery = true)
+	void markCompleted(@Param("name") String name);
+}
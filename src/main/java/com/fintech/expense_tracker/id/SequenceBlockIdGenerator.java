@@ -0,0 +1,155 @@
+package com.fintech.expense_tracker.id;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SequenceBlockIdGenerator - hands out IDs from blocks reserved
+ * from the PostgreSQL sequence 'transaction_id_seq'
+ *
+ * How it works (pooled hi/lo):
+ * - The sequence is created with INCREMENT BY = block size (see schema.sql)
+ * - Each nextval() returns the top of a fresh block: value v reserves (v - blockSize, v]
+ * - IDs inside the block are handed out from memory with an AtomicLong
+ * - Only one database round trip per block, no matter how big the table is
+ *
+ * Batches reserve all the blocks they need with one query (see nextIds).
+ *
+ * Several application instances can share the sequence safely,
+ * because PostgreSQL never returns the same nextval() twice.
+ * Unused IDs of a block are lost on restart (gaps are allowed, duplicates are not).
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "expense-tracker.id", name = "strategy", havingValue = "sequence", matchIfMissing = true)
+public class SequenceBlockIdGenerator implements TransactionIdGenerator {
+
+	static final String SEQUENCE_NAME = "transaction_id_seq";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	// Current block - replaced as a whole when exhausted
+	private volatile IdBlock currentBlock = IdBlock.EMPTY;
+
+	// Read lazily from pg_sequences (must match INCREMENT BY)
+	private volatile int blockSize;
+
+	@Autowired
+	public SequenceBlockIdGenerator(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public String nextId() {
+		while (true) {
+			IdBlock block = currentBlock;
+			long value = block.next.getAndIncrement();
+			if (value <= block.last) {
+				return TransactionIdGenerator.format(value);
+			}
+			// Block used up - reserve a new one (only one thread hits the database)
+			refill(block);
+		}
+	}
+
+	/**
+	 * Reserve IDs for a batch with a single database query
+	 *
+	 * Draws ceil(count / blockSize) fresh blocks in one statement and
+	 * assigns them locally. Each block is a contiguous range; blocks are
+	 * adjacent unless another instance draws from the sequence at the same time.
+	 * Leftover IDs of the last block are skipped (gap, never a duplicate).
+	 */
+	@Override
+	public List<String> nextIds(int count) {
+		List<String> ids = new ArrayList<>(count);
+		if (count <= 0) {
+			return ids;
+		}
+
+		int size = blockSize();
+		int blocks = (count + size - 1) / size;
+
+		for (long high : reserveBlocks(blocks)) {
+			for (long value = high - size + 1; value <= high && ids.size() < count; value++) {
+				ids.add(TransactionIdGenerator.format(value));
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Replace an exhausted block with a freshly reserved one
+	 * Threads that lose the race see the new block and just retry
+	 */
+	private synchronized void refill(IdBlock exhausted) {
+		if (currentBlock == exhausted) {
+			long high = nextSequenceValue();
+			currentBlock = new IdBlock(high - blockSize() + 1, high);
+		}
+	}
+
+	/**
+	 * Reserve one block: SELECT nextval('transaction_id_seq')
+	 *
+	 * @return Highest ID of the reserved block
+	 */
+	protected long nextSequenceValue() {
+		return jdbcTemplate.queryForObject(
+				"SELECT nextval('" + SEQUENCE_NAME + "')", Long.class);
+	}
+
+	/**
+	 * Reserve several blocks in one round trip:
+	 * SELECT nextval('transaction_id_seq') FROM generate_series(1, ?)
+	 *
+	 * @param blocks Number of blocks
+	 * @return Highest ID of every reserved block, ascending
+	 */
+	protected List<Long> reserveBlocks(int blocks) {
+		List<Long> highs = jdbcTemplate.queryForList(
+				"SELECT nextval('" + SEQUENCE_NAME + "') FROM generate_series(1, ?)",
+				Long.class, blocks);
+		List<Long> sorted = new ArrayList<>(highs);
+		sorted.sort(null);
+		return sorted;
+	}
+
+	/**
+	 * Block size = INCREMENT BY of the sequence
+	 * Read from the database once, so schema.sql is the single source of truth
+	 */
+	protected int blockSize() {
+		int size = blockSize;
+		if (size == 0) {
+			Long increment = jdbcTemplate.queryForObject(
+					"SELECT increment_by FROM pg_sequences WHERE sequencename = ?",
+					Long.class, SEQUENCE_NAME);
+			size = Math.toIntExact(increment);
+			blockSize = size;
+		}
+		return size;
+	}
+
+	/**
+	 * Range of reserved IDs [next, last], consumed with an atomic counter
+	 */
+	private static final class IdBlock {
+
+		static final IdBlock EMPTY = new IdBlock(1, 0);
+
+		final AtomicLong next;
+		final long last;
+
+		IdBlock(long first, long last) {
+			this.next = new AtomicLong(first);
+			this.last = last;
+		}
+	}
+}
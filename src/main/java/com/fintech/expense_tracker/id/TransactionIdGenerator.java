@@ -0,0 +1,57 @@
+package com.fintech.expense_tracker.id;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TransactionIdGenerator - strategy for assigning transaction IDs
+ *
+ * Implementations must be thread-safe: the service calls nextId()
+ * from many request threads at once.
+ *
+ * The active strategy is chosen with the property:
+ * expense-tracker.id.strategy (default: sequence)
+ */
+
+public interface TransactionIdGenerator {
+
+	/**
+	 * Prefix shared by every generated ID (TX0001, TX0002...)
+	 */
+	String PREFIX = "TX";
+
+	/**
+	 * Get the next unique transaction ID
+	 *
+	 * @return New transaction ID, never reused
+	 */
+	String nextId();
+
+	/**
+	 * Reserve IDs for a whole batch at once
+	 *
+	 * Implementations override this to reserve the range in a single
+	 * operation instead of calling nextId() once per element.
+	 *
+	 * @param count Number of IDs needed
+	 * @return 'count' unique IDs, in ascending order
+	 */
+	default List<String> nextIds(int count) {
+		List<String> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ids.add(nextId());
+		}
+		return ids;
+	}
+
+	/**
+	 * Format a numeric ID in the TX prefix format
+	 * Format: TX0001, TX0002 ... TX12345 (at least 4 digits)
+	 *
+	 * @param number Positive ID number
+	 * @return Formatted transaction ID
+	 */
+	static String format(long number) {
+		return PREFIX + String.format("%04d", number);
+	}
+}
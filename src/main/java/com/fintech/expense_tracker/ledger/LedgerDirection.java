@@ -0,0 +1,12 @@
+package com.fintech.expense_tracker.ledger;
+
+/**
+ * LedgerDirection - which leg of a transfer a ledger entry is
+ *
+ * DEBIT  = money left the account (from_account), amount is negative
+ * CREDIT = money arrived in the account (to_account), amount is positive
+ */
+public enum LedgerDirection {
+	DEBIT,
+	CREDIT
+}
@@ -0,0 +1,140 @@
+package com.fintech.expense_tracker.ledger;
+
+import com.fintech.expense_tracker.Transaction;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * LedgerEntry - one account leg of a transaction (double entry)
+ *
+ * Maps to 'ledger_entries' table, keyed by (transaction_id, direction).
+ * Every transaction has a DEBIT row for the sender and a CREDIT row for
+ * the receiver, written in the same database transaction. Account queries
+ * read one index, idx_ledger_account_timestamp (account, timestamp,
+ * transaction_id), instead of probing from_account and to_account.
+ */
+
+@Entity
+@Table(name = "ledger_entries")
+public class LedgerEntry implements Persistable<LedgerEntry.Key> {
+
+	@EmbeddedId
+	private Key id;
+
+	@Column(name = "account", nullable = false, length = 20)
+	private String account;
+
+	// Signed: negative for DEBIT, positive for CREDIT
+	@Column(name = "amount", nullable = false, precision = 19, scale = 2)
+	private BigDecimal amount;
+
+	@Column(name = "timestamp", nullable = false, updatable = false)
+	private LocalDateTime timestamp;
+
+	// Entries are only ever inserted, so save() must not SELECT first (see Transaction.isNew)
+	@Transient
+	private boolean isNew = true;
+
+	// Required by JPA
+	protected LedgerEntry() {
+	}
+
+	private LedgerEntry(Transaction transaction, LedgerDirection direction) {
+		this.id = new Key(transaction.getTransactionId(), direction);
+		this.timestamp = transaction.getTimestamp();
+		if (direction == LedgerDirection.DEBIT) {
+			this.account = transaction.getFromAccount();
+			this.amount = transaction.getAmount().negate();
+		} else {
+			this.account = transaction.getToAccount();
+			this.amount = transaction.getAmount();
+		}
+	}
+
+	public static LedgerEntry debit(Transaction transaction) {
+		return new LedgerEntry(transaction, LedgerDirection.DEBIT);
+	}
+
+	public static LedgerEntry credit(Transaction transaction) {
+		return new LedgerEntry(transaction, LedgerDirection.CREDIT);
+	}
+
+	@PostLoad
+	@PostPersist
+	protected void markNotNew() {
+		isNew = false;
+	}
+
+	@Override
+	public Key getId() {
+		return id;
+	}
+
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	public String getAccount() {
+		return account;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public LocalDateTime getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Composite primary key (transaction_id, direction)
+	 */
+	@Embeddable
+	public static class Key implements Serializable {
+
+		@Column(name = "transaction_id", nullable = false, length = 50)
+		private String transactionId;
+
+		@Enumerated(EnumType.STRING)
+		@Column(name = "direction", nullable = false, length = 6)
+		private LedgerDirection direction;
+
+		protected Key() {
+		}
+
+		Key(String transactionId, LedgerDirection direction) {
+			this.transactionId = transactionId;
+			this.direction = direction;
+		}
+
+		public String getTransactionId() {
+			return transactionId;
+		}
+
+		public LedgerDirection getDirection() {
+			return direction;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key other)) {
+				return false;
+			}
+			return Objects.equals(transactionId, other.transactionId)
+					&& direction == other.direction;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(transactionId, direction);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.fintech.expense_tracker.ledger;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * LedgerEntryRepository - data access for account legs
+ *
+ * Account reads that return transactions join from here in
+ * TransactionRepository; this repository only maintains the rows.
+ */
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, LedgerEntry.Key> {
+
+	/**
+	 * Remove both legs of a deleted transaction (primary key prefix)
+	 */
+	@Modifying
+	@Query("delete from LedgerEntry e where e.id.transactionId = :transactionId")
+	int deleteByTransactionId(@Param("transactionId") String transactionId);
+
+	/**
+	 * Block writers while the ledger is backfilled
+	 */
+	@Modifying
+	@Query(value = "LOCK TABLE ledger_entries IN EXCLUSIVE MODE", nativeQuery = true)
+	void lockForRebuild();
+
+	/**
+	 * Write both legs of every existing transaction
+	 * (one pass per side - only used by the one-off backfill, on an emptied ledger)
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO ledger_entries (transaction_id, direction, account, amount, timestamp)
+			SELECT transaction_id, 'DEBIT', from_account, -amount, timestamp
+			FROM transactions
+			UNION ALL
+			SELECT transaction_id, 'CREDIT', to_account, amount, timestamp
+			FROM transactions
+			""", nativeQuery = true)
+	int backfill();
+}
@@ -0,0 +1,74 @@
+package com.fintech.expense_tracker.ledger;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * LedgerPosting - one dated change to an account's balance
+ *
+ * Maps to 'ledger_postings' table. Written when money actually moves:
+ * both legs when a transaction is created or later becomes completed,
+ * and reversal legs (opposite signs) when it leaves 'completed' (refund,
+ * failure). Postings are dated when the change happened and never
+ * updated, so the balance as of a time is the sum of the postings up
+ * to it, and a later refund leaves earlier balances as they were.
+ *
+ * Unlike ledger_entries (one leg per account and transaction, whatever
+ * its status, for account reads), a transaction can have any number of
+ * postings.
+ */
+
+@Entity
+@Table(name = "ledger_postings")
+public class LedgerPosting {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_posting_seq")
+	@SequenceGenerator(name = "ledger_posting_seq", sequenceName = "ledger_posting_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(name = "transaction_id", nullable = false, length = 50)
+	private String transactionId;
+
+	@Column(name = "account", nullable = false, length = 20)
+	private String account;
+
+	// Signed: negative when money left the account
+	@Column(name = "amount", nullable = false, precision = 19, scale = 2)
+	private BigDecimal amount;
+
+	@Column(name = "posted_at", nullable = false, updatable = false)
+	private LocalDateTime postedAt;
+
+	// Required by JPA
+	protected LedgerPosting() {
+	}
+
+	LedgerPosting(String transactionId, String account, BigDecimal amount, LocalDateTime postedAt) {
+		this.transactionId = transactionId;
+		this.account = account;
+		this.amount = amount;
+		this.postedAt = postedAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getTransactionId() {
+		return transactionId;
+	}
+
+	public String getAccount() {
+		return account;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public LocalDateTime getPostedAt() {
+		return postedAt;
+	}
+}
@@ -0,0 +1,79 @@
+package com.fintech.expense_tracker.ledger;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * LedgerPostingRepository - data access for dated balance changes
+ *
+ * Answers the per-account sums behind balance checkpoints. Every query
+ * is a range read on posted_at, never a join to the transactions' current
+ * status.
+ */
+
+@Repository
+public interface LedgerPostingRepository extends JpaRepository<LedgerPosting, Long> {
+
+	/**
+	 * Net amount of an account's postings in (after, upTo]
+	 * (index-only range read on idx_ledger_postings_account_posted_at)
+	 */
+	@Query(value = """
+			SELECT COALESCE(SUM(amount), 0) FROM ledger_postings
+			WHERE account = :account AND posted_at > :after AND posted_at <= :upTo
+			""", nativeQuery = true)
+	BigDecimal sumPosted(@Param("account") String account,
+			@Param("after") LocalDateTime after,
+			@Param("upTo") LocalDateTime upTo);
+
+	/**
+	 * Number of an account's postings in (after, upTo] (index-only)
+	 */
+	@Query(value = """
+			SELECT COUNT(*) FROM ledger_postings
+			WHERE account = :account AND posted_at > :after AND posted_at <= :upTo
+			""", nativeQuery = true)
+	long countPostings(@Param("account") String account,
+			@Param("after") LocalDateTime after,
+			@Param("upTo") LocalDateTime upTo);
+
+	/**
+	 * Accounts with postings in (after, upTo]
+	 * (range read on idx_ledger_postings_posted_at)
+	 */
+	@Query(value = """
+			SELECT DISTINCT account FROM ledger_postings
+			WHERE posted_at > :after AND posted_at <= :upTo
+			""", nativeQuery = true)
+	List<String> findActiveAccounts(@Param("after") LocalDateTime after,
+			@Param("upTo") LocalDateTime upTo);
+
+	/**
+	 * Block writers while the postings are backfilled
+	 */
+	@Modifying
+	@Query(value = "LOCK TABLE ledger_postings IN EXCLUSIVE MODE", nativeQuery = true)
+	void lockForRebuild();
+
+	/**
+	 * Post both legs of every completed transaction, dated by its timestamp
+	 * (only used by the one-off backfill, on emptied postings)
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO ledger_postings (id, transaction_id, account, amount, posted_at)
+			SELECT nextval('ledger_posting_seq'), transaction_id, from_account, -amount, timestamp
+			FROM transactions WHERE status = 'completed'
+			UNION ALL
+			SELECT nextval('ledger_posting_seq'), transaction_id, to_account, amount, timestamp
+			FROM transactions WHERE status = 'completed'
+			""", nativeQuery = true)
+	int backfill();
+}
@@ -0,0 +1,126 @@
+package com.fintech.expense_tracker.ledger;
+
+import com.fintech.expense_tracker.Transaction;
+import com.fintech.expense_tracker.backfill.BackfillMarkerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LedgerService - keeps 'ledger_entries' in step with 'transactions'
+ *
+ * Responsibilities:
+ * - Write a DEBIT and a CREDIT leg for every new transaction
+ *   (called by TransactionService inside the same database transaction)
+ * - Remove both legs when a transaction is deleted
+ * - Post dated balance legs to 'ledger_postings' whenever money moves
+ *   (called by AccountBalanceService), reversal legs when it moves back
+ *
+ * Status changes do not touch ledger_entries: account reads take the
+ * status from the transaction the legs join to.
+ */
+
+@Service
+@Transactional
+public class LedgerService {
+
+	private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+
+	// Name in backfill_markers
+	private static final String BACKFILL = "ledger_entries";
+	private static final String POSTINGS_BACKFILL = "ledger_postings";
+
+	@Autowired
+	private LedgerEntryRepository ledgerEntryRepository;
+
+	@Autowired
+	private LedgerPostingRepository ledgerPostingRepository;
+
+	@Autowired
+	private BackfillMarkerRepository backfillMarkerRepository;
+
+	/**
+	 * Write both legs of new transactions (JDBC-batched inserts)
+	 */
+	public void recordCreated(List<Transaction> transactions) {
+		List<LedgerEntry> entries = new ArrayList<>(transactions.size() * 2);
+		for (Transaction transaction : transactions) {
+			entries.add(LedgerEntry.debit(transaction));
+			entries.add(LedgerEntry.credit(transaction));
+		}
+		ledgerEntryRepository.saveAll(entries);
+	}
+
+	public void recordDeleted(Transaction transaction) {
+		ledgerEntryRepository.deleteByTransactionId(transaction.getTransactionId());
+	}
+
+	/**
+	 * Post the money of transactions moving from sender to receiver, or
+	 * back, dated now (JDBC-batched inserts)
+	 *
+	 * Earlier postings are never changed: a refund is a reversal dated
+	 * when it happens, so balances before it stay as they were.
+	 *
+	 * @param transactions Transactions whose money moved
+	 * @param reversal true when it moved back to the sender (left 'completed')
+	 */
+	public void recordMoved(List<Transaction> transactions, boolean reversal) {
+		LocalDateTime now = LocalDateTime.now();
+		List<LedgerPosting> postings = new ArrayList<>(transactions.size() * 2);
+		for (Transaction transaction : transactions) {
+			BigDecimal amount = reversal ? transaction.getAmount().negate() : transaction.getAmount();
+			postings.add(new LedgerPosting(transaction.getTransactionId(),
+					transaction.getFromAccount(), amount.negate(), now));
+			postings.add(new LedgerPosting(transaction.getTransactionId(),
+					transaction.getToAccount(), amount, now));
+		}
+		ledgerPostingRepository.saveAll(postings);
+	}
+
+	/**
+	 * Write the legs of existing transactions the first time the
+	 * application starts with this feature (no-op once marked completed)
+	 *
+	 * Legs written before the marker exists - transactions created while
+	 * an instance was still starting - are replaced by the rebuild.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillOnce() {
+		ledgerEntryRepository.lockForRebuild();
+		if (backfillMarkerRepository.existsById(BACKFILL)) {
+			return;
+		}
+		ledgerEntryRepository.deleteAllInBatch();
+		int rows = ledgerEntryRepository.backfill();
+		backfillMarkerRepository.markCompleted(BACKFILL);
+		log.info("Backfilled {} ledger entries", rows);
+	}
+
+	/**
+	 * Post the completed transactions that existed before postings did,
+	 * dated by their timestamps (no-op once marked completed)
+	 *
+	 * Postings written before the marker exists are replaced by the rebuild.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillPostingsOnce() {
+		ledgerPostingRepository.lockForRebuild();
+		if (backfillMarkerRepository.existsById(POSTINGS_BACKFILL)) {
+			return;
+		}
+		ledgerPostingRepository.deleteAllInBatch();
+		int rows = ledgerPostingRepository.backfill();
+		backfillMarkerRepository.markCompleted(POSTINGS_BACKFILL);
+		log.info("Backfilled {} ledger postings", rows);
+	}
+}
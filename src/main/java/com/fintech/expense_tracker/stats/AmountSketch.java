@@ -0,0 +1,52 @@
+package com.fintech.expense_tracker.stats;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * AmountSketch - persisted quantile sketch of transaction amounts
+ *
+ * Maps to 'amount_sketches' table. One row per key:
+ * - "global"           all transactions
+ * - "status:completed" one per status
+ * - "day:2026-03-31"   one per calendar day
+ *
+ * Payload is QuantileSketch.toBytes(). Rows only grow by merging
+ * deltas (see AmountSketchService.flush), never by overwriting.
+ */
+
+@Entity
+@Table(name = "amount_sketches")
+public class AmountSketch {
+
+	@Id
+	@Column(name = "sketch_key", nullable = false, length = 40)
+	private String sketchKey;
+
+	@Column(name = "payload", nullable = false)
+	private byte[] payload;
+
+	@Column(name = "updated_at", nullable = false)
+	private LocalDateTime updatedAt;
+
+	// Required by JPA
+	protected AmountSketch() {
+	}
+
+	public String getSketchKey() {
+		return sketchKey;
+	}
+
+	public QuantileSketch getSketch() {
+		return QuantileSketch.fromBytes(payload);
+	}
+
+	public void setSketch(QuantileSketch sketch) {
+		this.payload = sketch.toBytes();
+		this.updatedAt = LocalDateTime.now();
+	}
+
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+}
@@ -0,0 +1,60 @@
+package com.fintech.expense_tracker.stats;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * AmountSketchRepository - data access for persisted quantile sketches
+ */
+
+@Repository
+public interface AmountSketchRepository extends JpaRepository<AmountSketch, String> {
+
+	/**
+	 * Create an empty row for a key unless it already exists
+	 *
+	 * Generated SQL:
+	 * INSERT ... ON CONFLICT (sketch_key) DO NOTHING
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO amount_sketches (sketch_key, payload, updated_at)
+			VALUES (:key, :payload, now())
+			ON CONFLICT (sketch_key) DO NOTHING
+			""", nativeQuery = true)
+	void insertIfAbsent(@Param("key") String key, @Param("payload") byte[] payload);
+
+	/**
+	 * Load a sketch row and lock it until the transaction ends
+	 * (SELECT ... FOR UPDATE), so merges from several instances queue up
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from AmountSketch s where s.sketchKey = :key")
+	Optional<AmountSketch> findForUpdate(@Param("key") String key);
+
+	/**
+	 * Keys in a range, e.g. "day:2026-01-01" to "day:2026-02-01"
+	 * (ISO dates sort the same way as strings)
+	 */
+	List<AmountSketch> findBySketchKeyGreaterThanEqualAndSketchKeyLessThan(String fromKey, String toKey);
+
+	/**
+	 * All keys starting with a prefix, e.g. "status:"
+	 */
+	List<AmountSketch> findBySketchKeyStartingWith(String prefix);
+
+	/**
+	 * Block other instances while the sketches are backfilled
+	 */
+	@Modifying
+	@Query(value = "LOCK TABLE amount_sketches IN EXCLUSIVE MODE", nativeQuery = true)
+	void lockForRebuild();
+}
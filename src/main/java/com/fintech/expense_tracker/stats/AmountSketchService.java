@@ -0,0 +1,298 @@
+package com.fintech.expense_tracker.stats;
+
+import com.fintech.expense_tracker.Transaction;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AmountSketchService - p50/p90/p99 of transaction amounts
+ *
+ * How it works:
+ * - Every committed write adds/removes its amount in in-memory delta sketches
+ *   (global, per status, per day)
+ * - Every expense-tracker.sketch.flush-interval-ms the deltas are merged into
+ *   the 'amount_sketches' rows under a row lock, then cleared
+ * - Reads merge the persisted rows with this instance's unflushed deltas
+ *
+ * No sorting of the transactions table, and several instances can flush
+ * into the same rows because merging is just adding bucket counts.
+ */
+
+@Service
+public class AmountSketchService {
+
+	private static final Logger log = LoggerFactory.getLogger(AmountSketchService.class);
+
+	static final String GLOBAL_KEY = "global";
+	static final String STATUS_PREFIX = "status:";
+	static final String DAY_PREFIX = "day:";
+
+	// Sorts right after every "status:..." key (';' follows ':')
+	private static final String STATUS_END = "status;";
+
+	private static final String ERROR_BOUND = "Each percentile is within +/-"
+			+ (int) (QuantileSketch.RELATIVE_ACCURACY * 100)
+			+ "% of the exact amount at that rank (relative error, any data distribution)";
+
+	@Autowired
+	private AmountSketchRepository amountSketchRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Unflushed changes of this instance, by sketch key
+	private final ConcurrentHashMap<String, QuantileSketch> pending = new ConcurrentHashMap<>();
+
+	// ==================== WRITE HOOKS ====================
+
+	public void recordCreated(Transaction transaction) {
+		BigDecimal amount = transaction.getAmount();
+		String status = transaction.getStatus();
+		LocalDate day = transaction.getTimestamp().toLocalDate();
+		afterCommit(() -> {
+			add(GLOBAL_KEY, amount, true);
+			add(statusKey(status), amount, true);
+			add(dayKey(day), amount, true);
+		});
+	}
+
+	public void recordStatusChange(Transaction transaction, String oldStatus) {
+		BigDecimal amount = transaction.getAmount();
+		String newStatus = transaction.getStatus();
+		afterCommit(() -> {
+			add(statusKey(oldStatus), amount, false);
+			add(statusKey(newStatus), amount, true);
+		});
+	}
+
+	public void recordDeleted(Transaction transaction) {
+		BigDecimal amount = transaction.getAmount();
+		String status = transaction.getStatus();
+		LocalDate day = transaction.getTimestamp().toLocalDate();
+		afterCommit(() -> {
+			add(GLOBAL_KEY, amount, false);
+			add(statusKey(status), amount, false);
+			add(dayKey(day), amount, false);
+		});
+	}
+
+	/**
+	 * Only touch the sketches once the database change is committed,
+	 * so rolled-back writes never show up in the percentiles
+	 */
+	private void afterCommit(Runnable change) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			change.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				change.run();
+			}
+		});
+	}
+
+	private void add(String key, BigDecimal amount, boolean added) {
+		// compute() holds the key's lock, so flush() never drains a sketch mid-update
+		pending.compute(key, (k, sketch) -> {
+			QuantileSketch target = sketch == null ? new QuantileSketch() : sketch;
+			if (added) {
+				target.add(amount.doubleValue());
+			} else {
+				target.remove(amount.doubleValue());
+			}
+			return target;
+		});
+	}
+
+	// ==================== PERSISTENCE ====================
+
+	/**
+	 * Merge unflushed deltas into the database rows
+	 *
+	 * Keys are locked in sorted order so two instances flushing at the
+	 * same time cannot deadlock. If the flush fails the deltas are put back.
+	 */
+	@Scheduled(fixedDelayString = "${expense-tracker.sketch.flush-interval-ms:10000}")
+	@PreDestroy
+	public void flush() {
+		Map<String, QuantileSketch> drained = new TreeMap<>();
+		for (String key : pending.keySet()) {
+			QuantileSketch delta = pending.remove(key);
+			if (delta != null && !delta.isEmpty()) {
+				drained.put(key, delta);
+			}
+		}
+		if (drained.isEmpty()) {
+			return;
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> drained.forEach((key, delta) -> {
+				amountSketchRepository.insertIfAbsent(key, new QuantileSketch().toBytes());
+				AmountSketch row = amountSketchRepository.findForUpdate(key).orElseThrow();
+				QuantileSketch merged = row.getSketch();
+				merged.merge(delta);
+				row.setSketch(merged);
+			}));
+		} catch (RuntimeException e) {
+			log.warn("Could not flush {} amount sketches, will retry: {}", drained.size(), e.getMessage());
+			drained.forEach((key, delta) -> pending.merge(key, delta, (current, restored) -> {
+				current.merge(restored);
+				return current;
+			}));
+		}
+	}
+
+	/**
+	 * Build the sketches from existing transactions the first time the
+	 * application starts with this feature (no-op once rows exist)
+	 *
+	 * Reads only amount, status and timestamp - no entities.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillIfEmpty() {
+		transactionTemplate.executeWithoutResult(status -> {
+			amountSketchRepository.lockForRebuild();
+			if (amountSketchRepository.count() > 0) {
+				return;
+			}
+
+			Map<String, QuantileSketch> sketches = new TreeMap<>();
+			jdbcTemplate.query("SELECT amount, status, timestamp FROM transactions", rs -> {
+				double amount = rs.getBigDecimal("amount").doubleValue();
+				LocalDate day = rs.getTimestamp("timestamp").toLocalDateTime().toLocalDate();
+				sketches.computeIfAbsent(GLOBAL_KEY, k -> new QuantileSketch()).add(amount);
+				sketches.computeIfAbsent(statusKey(rs.getString("status")), k -> new QuantileSketch()).add(amount);
+				sketches.computeIfAbsent(dayKey(day), k -> new QuantileSketch()).add(amount);
+			});
+
+			sketches.forEach((key, sketch) -> amountSketchRepository.insertIfAbsent(key, sketch.toBytes()));
+			log.info("Backfilled {} amount sketches", sketches.size());
+		});
+	}
+
+	// ==================== READ ====================
+
+	/**
+	 * Percentiles for the /stats response
+	 *
+	 * @param from Range start (optional) - day sketches from this date
+	 * @param to Range end, exclusive (optional) - day sketches before this date
+	 * @return Global and per-status percentiles, or the merged day range when
+	 *         from/to are given, with the error bound spelled out
+	 */
+	public Map<String, Object> getPercentiles(LocalDateTime from, LocalDateTime to) {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("relativeError", QuantileSketch.RELATIVE_ACCURACY);
+		result.put("errorBound", ERROR_BOUND);
+
+		if (from == null && to == null) {
+			QuantileSketch global = amountSketchRepository.findById(GLOBAL_KEY)
+					.map(AmountSketch::getSketch)
+					.orElseGet(QuantileSketch::new);
+			global.merge(snapshot(GLOBAL_KEY));
+			result.put("global", describe(global));
+
+			Map<String, QuantileSketch> statuses = withPending(
+					amountSketchRepository.findBySketchKeyStartingWith(STATUS_PREFIX),
+					STATUS_PREFIX, "\uffff");
+			Map<String, Object> byStatus = new TreeMap<>();
+			statuses.forEach((key, sketch) -> {
+				if (sketch.getCount() > 0) {
+					byStatus.put(key.substring(STATUS_PREFIX.length()), describe(sketch));
+				}
+			});
+			result.put("byStatus", byStatus);
+		} else {
+			// Day sketches: the range is widened to whole days
+			LocalDate firstDay = from == null ? LocalDate.EPOCH : from.toLocalDate();
+			LocalDate endDay = to == null
+					? LocalDate.now().plusDays(1)
+					: RollupGranularity.DAY.ceiling(to).toLocalDate();
+			String fromKey = dayKey(firstDay);
+			String toKey = dayKey(endDay);
+
+			QuantileSketch range = new QuantileSketch();
+			withPending(amountSketchRepository.findBySketchKeyGreaterThanEqualAndSketchKeyLessThan(fromKey, toKey),
+					fromKey, toKey).values().forEach(range::merge);
+
+			Map<String, Object> described = describe(range);
+			described.put("fromDay", firstDay);
+			described.put("toDay", endDay);
+			result.put("range", described);
+		}
+		return result;
+	}
+
+	/**
+	 * Persisted rows plus this instance's unflushed deltas for keys in [fromKey, toKey)
+	 */
+	private Map<String, QuantileSketch> withPending(List<AmountSketch> rows, String fromKey, String toKey) {
+		Map<String, QuantileSketch> sketches = new HashMap<>();
+		for (AmountSketch row : rows) {
+			sketches.put(row.getSketchKey(), row.getSketch());
+		}
+		for (String key : pending.keySet()) {
+			if (key.compareTo(fromKey) >= 0 && key.compareTo(toKey) < 0) {
+				sketches.computeIfAbsent(key, k -> new QuantileSketch()).merge(snapshot(key));
+			}
+		}
+		return sketches;
+	}
+
+	private QuantileSketch snapshot(String key) {
+		QuantileSketch[] copy = {new QuantileSketch()};
+		pending.computeIfPresent(key, (k, delta) -> {
+			copy[0] = delta.copy();
+			return delta;
+		});
+		return copy[0];
+	}
+
+	private static Map<String, Object> describe(QuantileSketch sketch) {
+		Map<String, Object> percentiles = new HashMap<>();
+		percentiles.put("count", Math.max(sketch.getCount(), 0));
+		percentiles.put("p50", toAmount(sketch.quantile(0.50)));
+		percentiles.put("p90", toAmount(sketch.quantile(0.90)));
+		percentiles.put("p99", toAmount(sketch.quantile(0.99)));
+		return percentiles;
+	}
+
+	private static BigDecimal toAmount(double value) {
+		return Double.isNaN(value) ? null : BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+	}
+
+	private static String statusKey(String status) {
+		return STATUS_PREFIX + status;
+	}
+
+	private static String dayKey(LocalDate day) {
+		return DAY_PREFIX + day;
+	}
+}
@@ -0,0 +1,160 @@
+package com.fintech.expense_tracker.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * QuantileSketch - mergeable percentile estimator for positive amounts
+ *
+ * Log-bucketed histogram (DDSketch algorithm):
+ * - Bucket i holds values in (gamma^(i-1), gamma^i], gamma = (1 + a) / (1 - a)
+ * - A bucket answers with 2 * gamma^i / (gamma + 1)
+ * - So every percentile is within +/- a (relative) of the exact value of that rank
+ *
+ * With a = 1% the whole range R 0.01 - R 50,000 needs under 800 buckets.
+ * Sketches merge by adding bucket counts, so per-day sketches can be
+ * combined into any date range, and deltas from several instances can
+ * be added together. Counts may go negative in a delta (deletes).
+ *
+ * Not thread-safe: callers synchronize.
+ */
+public final class QuantileSketch {
+
+	/**
+	 * Guaranteed relative error of every returned percentile
+	 */
+	public static final double RELATIVE_ACCURACY = 0.01;
+
+	private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+	private static final double LOG_GAMMA = Math.log(GAMMA);
+	private static final byte FORMAT_VERSION = 1;
+
+	// bucket index -> number of values
+	private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+
+	// Values <= 0 cannot be log-bucketed (never happens for valid amounts)
+	private long zeroCount;
+
+	private long count;
+
+	public void add(double value) {
+		add(value, 1);
+	}
+
+	public void remove(double value) {
+		add(value, -1);
+	}
+
+	private void add(double value, long delta) {
+		if (value <= 0) {
+			zeroCount += delta;
+		} else {
+			buckets.merge(index(value), delta, (a, b) -> a + b == 0 ? null : a + b);
+		}
+		count += delta;
+	}
+
+	/**
+	 * Add all values of another sketch to this one
+	 */
+	public void merge(QuantileSketch other) {
+		other.buckets.forEach((index, n) -> buckets.merge(index, n, (a, b) -> a + b == 0 ? null : a + b));
+		zeroCount += other.zeroCount;
+		count += other.count;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public boolean isEmpty() {
+		return count == 0 && zeroCount == 0 && buckets.isEmpty();
+	}
+
+	/**
+	 * Estimate the value at quantile q
+	 *
+	 * @param q Quantile between 0 and 1 (0.5 = median, 0.99 = p99)
+	 * @return Estimated value, or NaN if the sketch is empty
+	 */
+	public double quantile(double q) {
+		if (count <= 0) {
+			return Double.NaN;
+		}
+
+		long rank = (long) Math.floor(q * (count - 1));
+		long seen = zeroCount;
+		if (rank < seen) {
+			return 0;
+		}
+
+		for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+			seen += bucket.getValue();
+			if (seen > rank) {
+				return value(bucket.getKey());
+			}
+		}
+		return value(buckets.lastKey());
+	}
+
+	public QuantileSketch copy() {
+		QuantileSketch copy = new QuantileSketch();
+		copy.merge(this);
+		return copy;
+	}
+
+	private static int index(double value) {
+		return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+	}
+
+	private static double value(int index) {
+		return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+	}
+
+	// ==================== SERIALIZATION ====================
+
+	/**
+	 * Compact binary form: version, zeroCount, count, then (index, count) pairs
+	 */
+	public byte[] toBytes() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + buckets.size() * 12);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(FORMAT_VERSION);
+			out.writeLong(zeroCount);
+			out.writeLong(count);
+			out.writeInt(buckets.size());
+			for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+				out.writeInt(bucket.getKey());
+				out.writeLong(bucket.getValue());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	public static QuantileSketch fromBytes(byte[] data) {
+		QuantileSketch sketch = new QuantileSketch();
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			byte version = in.readByte();
+			if (version != FORMAT_VERSION) {
+				throw new IllegalStateException("Unknown quantile sketch format: " + version);
+			}
+			sketch.zeroCount = in.readLong();
+			sketch.count = in.readLong();
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				sketch.buckets.put(in.readInt(), in.readLong());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return sketch;
+	}
+}
@@ -0,0 +1,21 @@
+package com.fintech.expense_tracker.stats;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * RollupBucket - one time bucket merged over all statuses
+ *
+ * @param bucketStart Start of the hour/day
+ * @param transactionCount Transactions in the bucket
+ * @param totalAmount Sum of amounts
+ * @param minAmount Smallest amount
+ * @param maxAmount Largest amount
+ */
+public record RollupBucket(
+		LocalDateTime bucketStart,
+		long transactionCount,
+		BigDecimal totalAmount,
+		BigDecimal minAmount,
+		BigDecimal maxAmount) {
+}
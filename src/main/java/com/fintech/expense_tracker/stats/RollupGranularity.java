@@ -0,0 +1,66 @@
+package com.fintech.expense_tracker.stats;
+
+import com.fintech.expense_tracker.exceptions.InvalidOperationException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * RollupGranularity - size of a statistics rollup bucket
+ */
+public enum RollupGranularity {
+
+	HOUR(ChronoUnit.HOURS),
+	DAY(ChronoUnit.DAYS);
+
+	private final ChronoUnit unit;
+
+	RollupGranularity(ChronoUnit unit) {
+		this.unit = unit;
+	}
+
+	/**
+	 * Start of the bucket that contains the given time
+	 * Example (HOUR): 2026-03-01T14:37 -> 2026-03-01T14:00
+	 */
+	public LocalDateTime bucketStart(LocalDateTime time) {
+		return time.truncatedTo(unit);
+	}
+
+	/**
+	 * End of the bucket starting at bucketStart (exclusive)
+	 */
+	public LocalDateTime bucketEnd(LocalDateTime bucketStart) {
+		return bucketStart.plus(1, unit);
+	}
+
+	/**
+	 * First bucket boundary at or after the given time
+	 * Example (DAY): 2026-03-01T14:37 -> 2026-03-02T00:00
+	 */
+	public LocalDateTime ceiling(LocalDateTime time) {
+		LocalDateTime start = bucketStart(time);
+		return start.equals(time) ? start : start.plus(1, unit);
+	}
+
+	/**
+	 * Unit name understood by PostgreSQL date_trunc()
+	 */
+	public String sqlUnit() {
+		return name().toLowerCase();
+	}
+
+	/**
+	 * Parse the ?granularity= request parameter (hour, day)
+	 *
+	 * @throws InvalidOperationException if the value is unknown
+	 */
+	public static RollupGranularity fromParam(String value) {
+		for (RollupGranularity granularity : values()) {
+			if (granularity.name().equalsIgnoreCase(value)) {
+				return granularity;
+			}
+		}
+		throw new InvalidOperationException("Granularity must be 'hour' or 'day'");
+	}
+}
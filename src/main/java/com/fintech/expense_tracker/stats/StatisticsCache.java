@@ -0,0 +1,182 @@
+package com.fintech.expense_tracker.stats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * StatisticsCache - computed /stats responses, stamped with a write version
+ *
+ * How it works:
+ * - TransactionService calls invalidate() on every mutation; the write
+ *   version goes up once the database transaction commits
+ * - A snapshot is served while it is younger than
+ *   expense-tracker.stats.cache.max-stale-ms, then recomputed
+ * - A write makes the next request after that recompute (the version
+ *   tells a current hit from a stale one in the metrics)
+ * - Concurrent requests for the same query share one recomputation
+ *
+ * CHANGED: a snapshot at the current version used to be served with no
+ * age limit. The version is kept per instance, so writes made through
+ * another instance never invalidated it. Every snapshot now expires
+ * after max-stale-ms, whatever its version.
+ */
+
+@Component
+public class StatisticsCache {
+
+	// Above this many cached queries, snapshots of older versions are dropped
+	private static final int MAX_ENTRIES = 1_000;
+
+	@Value("${expense-tracker.stats.cache.max-stale-ms:1000}")
+	private long maxStaleMs;
+
+	private final AtomicLong version = new AtomicLong();
+
+	private final ConcurrentHashMap<StatisticsQuery, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong staleHits = new AtomicLong();
+	private final AtomicLong sharedWaits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong recomputes = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * Mark cached statistics as out of date once the current database
+	 * transaction commits (immediately when there is none)
+	 */
+	public void invalidate() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			version.incrementAndGet();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				version.incrementAndGet();
+			}
+		});
+	}
+
+	/**
+	 * Cached response for a query, computing it if needed
+	 *
+	 * @param query Request parameters
+	 * @param compute Builds the response (called by at most one thread per query)
+	 * @return Read-only response map
+	 */
+	public Map<String, Object> get(StatisticsQuery query, Supplier<Map<String, Object>> compute) {
+		long currentVersion = version.get();
+		long now = System.nanoTime();
+
+		Snapshot cached = snapshots.get(query);
+		if (cached != null && cached.usable(currentVersion, now)) {
+			return await(cached, currentVersion);
+		}
+
+		misses.incrementAndGet();
+		Snapshot fresh = new Snapshot(currentVersion, now);
+		Snapshot winner = snapshots.compute(query, (key, existing) ->
+				existing != null && existing.usable(currentVersion, now) ? existing : fresh);
+		if (winner != fresh) {
+			// Another request started the recomputation first
+			return await(winner, currentVersion);
+		}
+
+		recomputes.incrementAndGet();
+		evictIfFull(currentVersion);
+		try {
+			fresh.result.complete(Collections.unmodifiableMap(compute.get()));
+		} catch (RuntimeException e) {
+			failures.incrementAndGet();
+			snapshots.remove(query, fresh);
+			fresh.result.completeExceptionally(e);
+			throw e;
+		}
+		return fresh.result.join();
+	}
+
+	private Map<String, Object> await(Snapshot snapshot, long currentVersion) {
+		if (!snapshot.result.isDone()) {
+			sharedWaits.incrementAndGet();
+		} else if (snapshot.version == currentVersion) {
+			hits.incrementAndGet();
+		} else {
+			staleHits.incrementAndGet();
+		}
+		try {
+			return snapshot.result.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private void evictIfFull(long currentVersion) {
+		if (snapshots.size() <= MAX_ENTRIES) {
+			return;
+		}
+		snapshots.values().removeIf(snapshot -> snapshot.version != currentVersion && snapshot.result.isDone());
+		if (snapshots.size() > MAX_ENTRIES) {
+			snapshots.values().removeIf(snapshot -> snapshot.result.isDone());
+		}
+	}
+
+	/**
+	 * Hit/miss/recompute counters since startup
+	 */
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("version", version.get());
+		metrics.put("entries", snapshots.size());
+		metrics.put("maxStaleMs", maxStaleMs);
+		metrics.put("hits", hits.get());
+		metrics.put("staleHits", staleHits.get());
+		metrics.put("sharedWaits", sharedWaits.get());
+		metrics.put("misses", misses.get());
+		metrics.put("recomputes", recomputes.get());
+		metrics.put("failures", failures.get());
+		return metrics;
+	}
+
+	/**
+	 * One computed (or in-flight) response
+	 */
+	private final class Snapshot {
+
+		final long version;
+		final long startedAt;
+		final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+
+		Snapshot(long version, long startedAt) {
+			this.version = version;
+			this.startedAt = startedAt;
+		}
+
+		/**
+		 * Data at most maxStaleMs old (measured from when the computation
+		 * started reading), or still being computed at the current version
+		 */
+		boolean usable(long currentVersion, long now) {
+			if (result.isCompletedExceptionally()) {
+				return false;
+			}
+			return (version == currentVersion && !result.isDone())
+					|| now - startedAt <= TimeUnit.MILLISECONDS.toNanos(maxStaleMs);
+		}
+	}
+}
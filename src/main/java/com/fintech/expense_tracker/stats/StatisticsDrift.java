@@ -0,0 +1,20 @@
+package com.fintech.expense_tracker.stats;
+
+import java.math.BigDecimal;
+
+/**
+ * StatisticsDrift - difference found by reconciliation for one status
+ *
+ * @param status Transaction status
+ * @param expectedCount Count computed from the transactions table
+ * @param actualCount Count held in the aggregate
+ * @param expectedAmount Amount computed from the transactions table
+ * @param actualAmount Amount held in the aggregate
+ */
+public record StatisticsDrift(
+		String status,
+		long expectedCount,
+		long actualCount,
+		BigDecimal expectedAmount,
+		BigDecimal actualAmount) {
+}
@@ -0,0 +1,9 @@
+package com.fintech.expense_tracker.stats;
+
+import java.time.LocalDateTime;
+
+/**
+ * StatisticsQuery - the parameters of one /stats request (cache key)
+ */
+public record StatisticsQuery(LocalDateTime from, LocalDateTime to, String account, String granularity) {
+}
@@ -0,0 +1,124 @@
+package com.fintech.expense_tracker.stats;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * StatisticsRollup - totals for one slot of a (granularity, time bucket, status)
+ *
+ * Maps to 'transaction_rollup_counters' table. Holds hourly and daily buckets,
+ * updated by TransactionRollupService as transactions are written.
+ * Range statistics read a few hundred of these rows instead of the
+ * transactions table.
+ *
+ * CHANGED: the current hour and day of each status were one row each, so
+ * every write in the fleet queued on them. Counts and amounts are now
+ * added to a random slot and summed on read. Min/max are kept in slot 0
+ * only, which a write locks just when it moves the bucket's min or max.
+ */
+
+@Entity
+@Table(name = "transaction_rollup_counters")
+public class StatisticsRollup {
+
+	@EmbeddedId
+	private Key id;
+
+	@Column(name = "transaction_count", nullable = false)
+	private long transactionCount;
+
+	@Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+	private BigDecimal totalAmount;
+
+	// Slot 0 only; NULL in the other slots and once every transaction of the bucket is gone
+	@Column(name = "min_amount", precision = 19, scale = 2)
+	private BigDecimal minAmount;
+
+	@Column(name = "max_amount", precision = 19, scale = 2)
+	private BigDecimal maxAmount;
+
+	// Required by JPA
+	protected StatisticsRollup() {
+	}
+
+	public Key getId() {
+		return id;
+	}
+
+	public long getTransactionCount() {
+		return transactionCount;
+	}
+
+	public BigDecimal getTotalAmount() {
+		return totalAmount;
+	}
+
+	public BigDecimal getMinAmount() {
+		return minAmount;
+	}
+
+	public BigDecimal getMaxAmount() {
+		return maxAmount;
+	}
+
+	/**
+	 * Composite primary key (granularity, bucket_start, status, slot)
+	 */
+	@Embeddable
+	public static class Key implements Serializable {
+
+		@Enumerated(EnumType.STRING)
+		@Column(name = "granularity", nullable = false, length = 5)
+		private RollupGranularity granularity;
+
+		@Column(name = "bucket_start", nullable = false)
+		private LocalDateTime bucketStart;
+
+		@Column(name = "status", nullable = false, length = 20)
+		private String status;
+
+		@Column(name = "slot", nullable = false)
+		private int slot;
+
+		protected Key() {
+		}
+
+		public RollupGranularity getGranularity() {
+			return granularity;
+		}
+
+		public LocalDateTime getBucketStart() {
+			return bucketStart;
+		}
+
+		public String getStatus() {
+			return status;
+		}
+
+		public int getSlot() {
+			return slot;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key other)) {
+				return false;
+			}
+			return granularity == other.granularity
+					&& Objects.equals(bucketStart, other.bucketStart)
+					&& Objects.equals(status, other.status)
+					&& slot == other.slot;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(granularity, bucketStart, status, slot);
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.fintech.expense_tracker.stats;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * StatisticsRollupRepository - data access for hourly/daily rollups
+ *
+ * Writes are atomic SQL upserts/updates, reads merge buckets and their
+ * slots in PostgreSQL.
+ */
+
+@Repository
+public interface StatisticsRollupRepository extends JpaRepository<StatisticsRollup, StatisticsRollup.Key> {
+
+	/**
+	 * Add a delta to one slot of a bucket (creates the row if missing)
+	 *
+	 * @param granularity HOUR or DAY
+	 * @param bucketStart Start of the bucket
+	 * @param status Transaction status
+	 * @param slot Slot row to add to
+	 * @param count Change in number of transactions (negative to remove)
+	 * @param amount Change in total amount (negative to remove)
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO transaction_rollup_counters AS r
+			    (granularity, bucket_start, status, slot, transaction_count, total_amount)
+			VALUES (:granularity, :bucketStart, :status, :slot, :count, :amount)
+			ON CONFLICT (granularity, bucket_start, status, slot) DO UPDATE SET
+			    transaction_count = r.transaction_count + EXCLUDED.transaction_count,
+			    total_amount = r.total_amount + EXCLUDED.total_amount
+			""", nativeQuery = true)
+	void applyDelta(@Param("granularity") String granularity,
+			@Param("bucketStart") LocalDateTime bucketStart,
+			@Param("status") String status,
+			@Param("slot") int slot,
+			@Param("count") long count,
+			@Param("amount") BigDecimal amount);
+
+	/**
+	 * Create slot 0 of a bucket with the given min/max, if it does not exist yet
+	 * (DO NOTHING takes no row lock when it does)
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO transaction_rollup_counters
+			    (granularity, bucket_start, status, slot, transaction_count, total_amount, min_amount, max_amount)
+			VALUES (:granularity, :bucketStart, :status, 0, 0, 0, :minAmount, :maxAmount)
+			ON CONFLICT (granularity, bucket_start, status, slot) DO NOTHING
+			""", nativeQuery = true)
+	void createExtremes(@Param("granularity") String granularity,
+			@Param("bucketStart") LocalDateTime bucketStart,
+			@Param("status") String status,
+			@Param("minAmount") BigDecimal minAmount,
+			@Param("maxAmount") BigDecimal maxAmount);
+
+	/**
+	 * Widen the min/max in slot 0 of a bucket to cover new amounts
+	 *
+	 * Only locks the row when the min or max actually moves, otherwise
+	 * the WHERE clause matches nothing.
+	 */
+	@Modifying
+	@Query(value = """
+			UPDATE transaction_rollup_counters
+			SET min_amount = LEAST(min_amount, :minAmount),
+			    max_amount = GREATEST(max_amount, :maxAmount)
+			WHERE granularity = :granularity AND bucket_start = :bucketStart AND status = :status AND slot = 0
+			  AND (min_amount IS NULL OR :minAmount < min_amount OR :maxAmount > max_amount)
+			""", nativeQuery = true)
+	int widenExtremes(@Param("granularity") String granularity,
+			@Param("bucketStart") LocalDateTime bucketStart,
+			@Param("status") String status,
+			@Param("minAmount") BigDecimal minAmount,
+			@Param("maxAmount") BigDecimal maxAmount);
+
+	/**
+	 * Recompute min/max (slot 0) of a bucket from the transactions table
+	 *
+	 * Only does work when the removed amount was the bucket's min or max,
+	 * otherwise the WHERE clause matches nothing. The scan is limited to
+	 * one hour/day of one status.
+	 */
+	@Modifying
+	@Query(value = """
+			UPDATE transaction_rollup_counters r
+			SET min_amount = agg.min_amount,
+			    max_amount = agg.max_amount
+			FROM (SELECT MIN(amount) AS min_amount, MAX(amount) AS max_amount
+			      FROM transactions
+			      WHERE status = :status AND timestamp >= :bucketStart AND timestamp < :bucketEnd) agg
+			WHERE r.granularity = :granularity AND r.bucket_start = :bucketStart AND r.status = :status AND r.slot = 0
+			  AND (:amount <= r.min_amount OR :amount >= r.max_amount)
+			""", nativeQuery = true)
+	int refreshMinMax(@Param("granularity") String granularity,
+			@Param("bucketStart") LocalDateTime bucketStart,
+			@Param("bucketEnd") LocalDateTime bucketEnd,
+			@Param("status") String status,
+			@Param("amount") BigDecimal amount);
+
+	/**
+	 * Buckets in a range, merged over all statuses and slots
+	 *
+	 * @param granularity HOUR or DAY
+	 * @param from First bucket start, inclusive
+	 * @param to Last bucket start, exclusive
+	 * @return One row per non-empty bucket, oldest first
+	 */
+	@Query("select new com.fintech.expense_tracker.stats.RollupBucket("
+			+ "r.id.bucketStart, sum(r.transactionCount), sum(r.totalAmount), min(r.minAmount), max(r.maxAmount)) "
+			+ "from StatisticsRollup r "
+			+ "where r.id.granularity = :granularity and r.id.bucketStart >= :from and r.id.bucketStart < :to "
+			+ "group by r.id.bucketStart having sum(r.transactionCount) > 0 order by r.id.bucketStart")
+	List<RollupBucket> findBuckets(@Param("granularity") RollupGranularity granularity,
+			@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to);
+
+	/**
+	 * Per-status totals for a range, merged over all buckets and slots
+	 */
+	@Query("select new com.fintech.expense_tracker.stats.StatusTotals("
+			+ "r.id.status, sum(r.transactionCount), sum(r.totalAmount)) "
+			+ "from StatisticsRollup r "
+			+ "where r.id.granularity = :granularity and r.id.bucketStart >= :from and r.id.bucketStart < :to "
+			+ "group by r.id.status having sum(r.transactionCount) > 0")
+	List<StatusTotals> sumByStatus(@Param("granularity") RollupGranularity granularity,
+			@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to);
+
+	/**
+	 * Block writers while the rollups are backfilled
+	 */
+	@Modifying
+	@Query(value = "LOCK TABLE transaction_rollup_counters IN EXCLUSIVE MODE", nativeQuery = true)
+	void lockForRebuild();
+
+	/**
+	 * Fill the rollups of one granularity from the transactions table
+	 * (one GROUP BY over the whole table - only used when the rollups are empty)
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO transaction_rollup_counters
+			    (granularity, bucket_start, status, slot, transaction_count, total_amount, min_amount, max_amount)
+			SELECT :granularity, date_trunc(:unit, timestamp), status, 0,
+			       COUNT(*), SUM(amount), MIN(amount), MAX(amount)
+			FROM transactions
+			WHERE status IS NOT NULL
+			GROUP BY 2, 3
+			""", nativeQuery = true)
+	int backfill(@Param("granularity") String granularity, @Param("unit") String unit);
+}
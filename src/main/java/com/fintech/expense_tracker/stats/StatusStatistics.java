@@ -0,0 +1,89 @@
+package com.fintech.expense_tracker.stats;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * StatusStatistics - running totals for one slot of one transaction status
+ *
+ * Maps to 'transaction_status_counters' table (a few slot rows per status).
+ * Kept up to date by TransactionStatisticsService on every write,
+ * so /api/transactions/stats never has to read the transactions table.
+ *
+ * CHANGED: one row per status made every write in the fleet queue on the
+ * same row lock. Each write now adds to one random slot, and reads sum
+ * the slots (StatusStatisticsRepository.sumByStatus).
+ */
+
+@Entity
+@Table(name = "transaction_status_counters")
+public class StatusStatistics {
+
+	@EmbeddedId
+	private Key id;
+
+	@Column(name = "transaction_count", nullable = false)
+	private long transactionCount;
+
+	@Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+	private BigDecimal totalAmount;
+
+	// Required by JPA
+	protected StatusStatistics() {
+	}
+
+	public Key getId() {
+		return id;
+	}
+
+	public long getTransactionCount() {
+		return transactionCount;
+	}
+
+	public BigDecimal getTotalAmount() {
+		return totalAmount;
+	}
+
+	/**
+	 * Composite primary key (status, slot)
+	 */
+	@Embeddable
+	public static class Key implements Serializable {
+
+		@Column(name = "status", nullable = false, length = 20)
+		private String status;
+
+		// 0..counter-slots-1 for writes, -1 for reconciliation
+		@Column(name = "slot", nullable = false)
+		private int slot;
+
+		protected Key() {
+		}
+
+		public String getStatus() {
+			return status;
+		}
+
+		public int getSlot() {
+			return slot;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key other)) {
+				return false;
+			}
+			return slot == other.slot && Objects.equals(status, other.status);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(status, slot);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.fintech.expense_tracker.stats;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * StatusStatisticsRepository - data access for the per-status aggregate
+ *
+ * Updates are atomic increments in SQL (no read-modify-write in Java),
+ * so concurrent writers never lose each other's changes. Each status is
+ * spread over several slot rows; reads add them up.
+ */
+
+@Repository
+public interface StatusStatisticsRepository extends JpaRepository<StatusStatistics, StatusStatistics.Key> {
+
+	/**
+	 * Add a delta to one slot of a status (creates the row if missing)
+	 *
+	 * Generated SQL:
+	 * INSERT ... ON CONFLICT (status, slot) DO UPDATE SET transaction_count = transaction_count + ?, ...
+	 *
+	 * @param status Transaction status
+	 * @param slot Slot row to add to
+	 * @param count Change in number of transactions (negative to remove)
+	 * @param amount Change in total amount (negative to remove)
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO transaction_status_counters (status, slot, transaction_count, total_amount)
+			VALUES (:status, :slot, :count, :amount)
+			ON CONFLICT (status, slot) DO UPDATE SET
+			    transaction_count = transaction_status_counters.transaction_count + EXCLUDED.transaction_count,
+			    total_amount = transaction_status_counters.total_amount + EXCLUDED.total_amount
+			""", nativeQuery = true)
+	void applyDelta(@Param("status") String status,
+			@Param("slot") int slot,
+			@Param("count") long count,
+			@Param("amount") BigDecimal amount);
+
+	/**
+	 * Totals per status, summed over its slots
+	 *
+	 * Generated SQL:
+	 * SELECT status, SUM(transaction_count), SUM(total_amount) FROM transaction_status_counters GROUP BY status
+	 */
+	@Query("select new com.fintech.expense_tracker.stats.StatusTotals("
+			+ "s.id.status, sum(s.transactionCount), sum(s.totalAmount)) "
+			+ "from StatusStatistics s "
+			+ "group by s.id.status")
+	List<StatusTotals> sumByStatus();
+}
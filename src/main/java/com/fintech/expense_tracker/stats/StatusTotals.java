@@ -0,0 +1,22 @@
+package com.fintech.expense_tracker.stats;
+
+import java.math.BigDecimal;
+
+/**
+ * StatusTotals - projection of one GROUP BY status row
+ *
+ * Computed by PostgreSQL, so only a few bytes per status
+ * travel over JDBC instead of whole Transaction entities.
+ *
+ * @param status Transaction status
+ * @param transactionCount COUNT(*) for this status
+ * @param totalAmount SUM(amount) for this status
+ */
+public record StatusTotals(String status, long transactionCount, BigDecimal totalAmount) {
+
+	public StatusTotals {
+		if (totalAmount == null) {
+			totalAmount = BigDecimal.ZERO;
+		}
+	}
+}
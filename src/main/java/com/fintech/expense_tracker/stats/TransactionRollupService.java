@@ -0,0 +1,235 @@
+package com.fintech.expense_tracker.stats;
+
+import com.fintech.expense_tracker.Transaction;
+import com.fintech.expense_tracker.backfill.BackfillMarkerRepository;
+import com.fintech.expense_tracker.exceptions.InvalidOperationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * TransactionRollupService - hourly and daily statistics rollups
+ *
+ * Responsibilities:
+ * - Keep a few slot rows per (granularity, bucket, status) up to date on every write
+ * - Answer range statistics by merging buckets instead of scanning transactions
+ *
+ * Write hooks are called through TransactionStatisticsService,
+ * inside the same database transaction as the change itself. Each call
+ * adds its counts to one random slot. Rows are locked in (granularity,
+ * bucket, status) order, the call's own slot before slot 0 (min/max),
+ * so concurrent writers cannot deadlock on them.
+ */
+
+@Service
+@Transactional
+public class TransactionRollupService {
+
+	private static final Logger log = LoggerFactory.getLogger(TransactionRollupService.class);
+
+	// Name in backfill_markers
+	private static final String BACKFILL = "transaction_rollup_counters";
+
+	// Lock order of the rollup rows within one granularity
+	private static final Comparator<BucketKey> BUCKET_ORDER = Comparator
+			.comparing(BucketKey::bucketStart)
+			.thenComparing(BucketKey::status);
+
+	@Autowired
+	private StatisticsRollupRepository statisticsRollupRepository;
+
+	@Autowired
+	private BackfillMarkerRepository backfillMarkerRepository;
+
+	// Rows per bucket and status that writes are spread over
+	@Value("${expense-tracker.stats.counter-slots:16}")
+	private int counterSlots;
+
+	// ==================== WRITE HOOKS ====================
+
+	/**
+	 * Add new transactions to their hourly and daily buckets
+	 * One upsert per (bucket, status) group, not one per transaction
+	 */
+	public void recordCreated(List<Transaction> transactions) {
+		int slot = slot();
+		for (RollupGranularity granularity : RollupGranularity.values()) {
+			add(granularity, slot, transactions);
+		}
+	}
+
+	/**
+	 * Take a transaction out of the buckets of the given status
+	 * (the transaction was deleted)
+	 */
+	public void recordRemoved(Transaction transaction, String status) {
+		int slot = slot();
+		for (RollupGranularity granularity : RollupGranularity.values()) {
+			remove(granularity, slot, transaction, status);
+		}
+	}
+
+	/**
+	 * Move a transaction from the buckets of its old status to those of
+	 * its current one, the two rows of each bucket in status order
+	 */
+	public void recordStatusChange(Transaction transaction, String oldStatus) {
+		int slot = slot();
+		for (RollupGranularity granularity : RollupGranularity.values()) {
+			if (oldStatus.compareTo(transaction.getStatus()) < 0) {
+				remove(granularity, slot, transaction, oldStatus);
+				add(granularity, slot, List.of(transaction));
+			} else {
+				add(granularity, slot, List.of(transaction));
+				remove(granularity, slot, transaction, oldStatus);
+			}
+		}
+	}
+
+	/**
+	 * Slot row for one write call (see StatisticsRollup)
+	 */
+	private int slot() {
+		return ThreadLocalRandom.current().nextInt(counterSlots);
+	}
+
+	private void add(RollupGranularity granularity, int slot, List<Transaction> transactions) {
+		Map<BucketKey, List<Transaction>> groups = transactions.stream()
+				.collect(Collectors.groupingBy(t -> new BucketKey(
+						granularity.bucketStart(t.getTimestamp()), t.getStatus()),
+						() -> new TreeMap<>(BUCKET_ORDER), Collectors.toList()));
+
+		groups.forEach((key, group) -> {
+			BigDecimal sum = BigDecimal.ZERO;
+			BigDecimal min = null;
+			BigDecimal max = null;
+			for (Transaction transaction : group) {
+				BigDecimal amount = transaction.getAmount();
+				sum = sum.add(amount);
+				min = min == null || amount.compareTo(min) < 0 ? amount : min;
+				max = max == null || amount.compareTo(max) > 0 ? amount : max;
+			}
+			statisticsRollupRepository.applyDelta(granularity.name(),
+					key.bucketStart(), key.status(), slot, group.size(), sum);
+			statisticsRollupRepository.createExtremes(granularity.name(),
+					key.bucketStart(), key.status(), min, max);
+			statisticsRollupRepository.widenExtremes(granularity.name(),
+					key.bucketStart(), key.status(), min, max);
+		});
+	}
+
+	private void remove(RollupGranularity granularity, int slot, Transaction transaction, String status) {
+		LocalDateTime bucketStart = granularity.bucketStart(transaction.getTimestamp());
+		statisticsRollupRepository.applyDelta(granularity.name(),
+				bucketStart, status, slot, -1, transaction.getAmount().negate());
+		statisticsRollupRepository.refreshMinMax(granularity.name(), bucketStart,
+				granularity.bucketEnd(bucketStart), status, transaction.getAmount());
+	}
+
+	// ==================== READ ====================
+
+	/**
+	 * Range statistics merged from rollup buckets
+	 *
+	 * The range is widened to whole buckets: 'from' is rounded down and
+	 * 'to' rounded up to the granularity. A year of daily data reads
+	 * about 365 rows per status.
+	 *
+	 * @param from Start of range (required)
+	 * @param to End of range, exclusive (required)
+	 * @param granularity Bucket size of the returned series
+	 * @return Totals, status breakdown and one entry per non-empty bucket
+	 */
+	@Transactional(readOnly = true)
+	public Map<String, Object> getStatistics(LocalDateTime from, LocalDateTime to, RollupGranularity granularity) {
+		if (from == null || to == null) {
+			throw new InvalidOperationException("'from' and 'to' are required with granularity");
+		}
+
+		LocalDateTime alignedFrom = granularity.bucketStart(from);
+		LocalDateTime alignedTo = granularity.ceiling(to);
+
+		List<RollupBucket> buckets = statisticsRollupRepository.findBuckets(granularity, alignedFrom, alignedTo);
+
+		long totalCount = 0;
+		BigDecimal totalAmount = BigDecimal.ZERO;
+		BigDecimal minAmount = null;
+		BigDecimal maxAmount = null;
+		for (RollupBucket bucket : buckets) {
+			totalCount += bucket.transactionCount();
+			totalAmount = totalAmount.add(bucket.totalAmount());
+			if (bucket.minAmount() != null && (minAmount == null || bucket.minAmount().compareTo(minAmount) < 0)) {
+				minAmount = bucket.minAmount();
+			}
+			if (bucket.maxAmount() != null && (maxAmount == null || bucket.maxAmount().compareTo(maxAmount) > 0)) {
+				maxAmount = bucket.maxAmount();
+			}
+		}
+
+		Map<String, Long> statusBreakdown = new HashMap<>();
+		for (StatusTotals row : statisticsRollupRepository.sumByStatus(granularity, alignedFrom, alignedTo)) {
+			statusBreakdown.put(row.status(), row.transactionCount());
+		}
+
+		Map<String, Object> response = new LinkedHashMap<>();
+		response.put("granularity", granularity.sqlUnit());
+		response.put("from", alignedFrom);
+		response.put("to", alignedTo);
+		response.put("totalTransactions", totalCount);
+		response.put("totalAmount", totalAmount);
+		response.put("averageAmount", totalCount == 0
+				? BigDecimal.ZERO
+				: totalAmount.divide(new BigDecimal(totalCount), 2, RoundingMode.HALF_UP));
+		response.put("minAmount", minAmount);
+		response.put("maxAmount", maxAmount);
+		response.put("currency", "ZAR");
+		response.put("statusBreakdown", statusBreakdown);
+		response.put("buckets", new ArrayList<>(buckets));
+		return response;
+	}
+
+	// ==================== BACKFILL ====================
+
+	/**
+	 * Fill the rollups from existing transactions the first time the
+	 * application starts with this feature (no-op once marked completed,
+	 * see BackfillMarker)
+	 *
+	 * Buckets written before the marker exists are replaced by the rebuild.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillOnce() {
+		statisticsRollupRepository.lockForRebuild();
+		if (backfillMarkerRepository.existsById(BACKFILL)) {
+			return;
+		}
+
+		statisticsRollupRepository.deleteAllInBatch();
+		for (RollupGranularity granularity : RollupGranularity.values()) {
+			int rows = statisticsRollupRepository.backfill(granularity.name(), granularity.sqlUnit());
+			log.info("Backfilled {} {} rollup rows", rows, granularity.sqlUnit());
+		}
+		backfillMarkerRepository.markCompleted(BACKFILL);
+	}
+
+	private record BucketKey(LocalDateTime bucketStart, String status) {
+	}
+}
@@ -0,0 +1,321 @@
+package com.fintech.expense_tracker.stats;
+
+import com.fintech.expense_tracker.Transaction;
+import com.fintech.expense_tracker.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * TransactionStatisticsService - incrementally maintained statistics
+ *
+ * Responsibilities:
+ * - Apply count/amount deltas when transactions are written
+ *   (called by TransactionService inside the same database transaction)
+ * - Forward the same changes to the hourly/daily rollups and amount sketches
+ * - Answer /stats from the aggregate (a few slot rows per status, no table scan)
+ * - Reconcile: correct the aggregate from the transactions table and report drift
+ */
+
+@Service
+@Transactional
+public class TransactionStatisticsService {
+
+	private static final Logger log = LoggerFactory.getLogger(TransactionStatisticsService.class);
+
+	// Slot only reconcile() writes, so its corrections never wait on writers
+	static final int RECONCILE_SLOT = -1;
+
+	@Autowired
+	private StatusStatisticsRepository statusStatisticsRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private TransactionRollupService transactionRollupService;
+
+	@Autowired
+	private AmountSketchService amountSketchService;
+
+	@Autowired
+	private StatisticsCache statisticsCache;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	// Rows per status that writes are spread over
+	@Value("${expense-tracker.stats.counter-slots:16}")
+	private int counterSlots;
+
+	// ==================== WRITE HOOKS ====================
+
+	/**
+	 * Count a newly created transaction
+	 */
+	public void recordCreated(Transaction transaction) {
+		statusStatisticsRepository.applyDelta(transaction.getStatus(), slot(), 1, transaction.getAmount());
+		transactionRollupService.recordCreated(List.of(transaction));
+		amountSketchService.recordCreated(transaction);
+	}
+
+	/**
+	 * Count a batch of new transactions
+	 * One upsert per distinct status, not one per transaction, in status
+	 * order (see recordStatusChange)
+	 */
+	public void recordCreated(List<Transaction> transactions) {
+		int slot = slot();
+		Map<String, List<Transaction>> byStatus = transactions.stream()
+				.collect(Collectors.groupingBy(Transaction::getStatus, TreeMap::new, Collectors.toList()));
+
+		byStatus.forEach((status, group) -> {
+			BigDecimal amount = group.stream()
+					.map(Transaction::getAmount)
+					.reduce(BigDecimal.ZERO, BigDecimal::add);
+			statusStatisticsRepository.applyDelta(status, slot, group.size(), amount);
+		});
+		transactionRollupService.recordCreated(transactions);
+		transactions.forEach(amountSketchService::recordCreated);
+	}
+
+	/**
+	 * Move a transaction from its old status to its current one
+	 *
+	 * Both status rows are updated in status order, whichever way the
+	 * transaction moves: a pending -> completed change and a concurrent
+	 * completed -> pending one in the same slot would otherwise lock the
+	 * two rows in opposite orders and deadlock.
+	 */
+	public void recordStatusChange(Transaction transaction, String oldStatus) {
+		String newStatus = transaction.getStatus();
+		if (oldStatus.equals(newStatus)) {
+			return;
+		}
+		int slot = slot();
+		if (oldStatus.compareTo(newStatus) < 0) {
+			statusStatisticsRepository.applyDelta(oldStatus, slot, -1, transaction.getAmount().negate());
+			statusStatisticsRepository.applyDelta(newStatus, slot, 1, transaction.getAmount());
+		} else {
+			statusStatisticsRepository.applyDelta(newStatus, slot, 1, transaction.getAmount());
+			statusStatisticsRepository.applyDelta(oldStatus, slot, -1, transaction.getAmount().negate());
+		}
+
+		transactionRollupService.recordStatusChange(transaction, oldStatus);
+		amountSketchService.recordStatusChange(transaction, oldStatus);
+	}
+
+	/**
+	 * Remove a deleted transaction from the totals
+	 */
+	public void recordDeleted(Transaction transaction) {
+		statusStatisticsRepository.applyDelta(transaction.getStatus(), slot(), -1, transaction.getAmount().negate());
+		transactionRollupService.recordRemoved(transaction, transaction.getStatus());
+		amountSketchService.recordDeleted(transaction);
+	}
+
+	/**
+	 * Slot row for one write
+	 *
+	 * Concurrent writes of the same status mostly land on different rows
+	 * instead of queueing on one row lock. A slot's own totals mean
+	 * nothing (they can go negative), only their sum does.
+	 */
+	private int slot() {
+		return ThreadLocalRandom.current().nextInt(counterSlots);
+	}
+
+	// ==================== READ ====================
+
+	/**
+	 * Statistics over all transactions, read from the aggregate
+	 *
+	 * Returns:
+	 * - Total count
+	 * - Total amount transferred
+	 * - Average transaction amount
+	 * - Breakdown by status
+	 */
+	@Transactional(readOnly = true)
+	public Map<String, Object> getStatistics() {
+		long totalCount = 0;
+		BigDecimal totalAmount = BigDecimal.ZERO;
+		Map<String, Long> statusBreakdown = new HashMap<>();
+
+		for (StatusTotals row : statusStatisticsRepository.sumByStatus()) {
+			if (row.transactionCount() == 0) {
+				continue;
+			}
+			totalCount += row.transactionCount();
+			totalAmount = totalAmount.add(row.totalAmount());
+			statusBreakdown.put(row.status(), row.transactionCount());
+		}
+
+		Map<String, Object> response = new HashMap<>();
+		if (totalCount == 0) {
+			response.put("totalTransactions", 0);
+			response.put("totalAmount", BigDecimal.ZERO);
+			response.put("averageAmount", BigDecimal.ZERO);
+			response.put("statusBreakdown", new HashMap<>());
+			return response;
+		}
+
+		response.put("totalTransactions", totalCount);
+		response.put("totalAmount", totalAmount);
+		response.put("averageAmount", totalAmount.divide(new BigDecimal(totalCount), 2, RoundingMode.HALF_UP));
+		response.put("currency", "ZAR");
+		response.put("statusBreakdown", statusBreakdown);
+		return response;
+	}
+
+	/**
+	 * Statistics for a time range and/or account, computed by PostgreSQL
+	 *
+	 * Filters are pushed down into two aggregate queries (totals + per status),
+	 * so only a few hundred bytes come back over JDBC.
+	 *
+	 * @param from Earliest timestamp, inclusive (optional)
+	 * @param to Latest timestamp, exclusive (optional)
+	 * @param account Sender or receiver account (optional)
+	 */
+	@Transactional(readOnly = true)
+	public Map<String, Object> getStatistics(LocalDateTime from, LocalDateTime to, String account) {
+		TransactionTotals totals = transactionRepository.sumAmount(from, to, account);
+
+		Map<String, Long> statusBreakdown = new HashMap<>();
+		for (StatusTotals row : transactionRepository.sumAmountGroupByStatus(from, to, account)) {
+			statusBreakdown.put(row.status(), row.transactionCount());
+		}
+
+		Map<String, Object> response = new HashMap<>();
+		response.put("totalTransactions", totals.transactionCount());
+		response.put("totalAmount", totals.totalAmount());
+		response.put("averageAmount", totals.averageAmount());
+		response.put("currency", "ZAR");
+		response.put("statusBreakdown", statusBreakdown);
+		response.put("from", from);
+		response.put("to", to);
+		response.put("account", account);
+		return response;
+	}
+
+	// ==================== RECONCILIATION ====================
+
+	/**
+	 * Compare the aggregate with the transactions table, correct any drift
+	 * and report it
+	 *
+	 * CHANGED: no longer locks the aggregate table for the full scan of
+	 * transactions (that blocked every write for as long as the scan ran).
+	 * Both sides are read from one REPEATABLE READ snapshot, so writes
+	 * committed meanwhile are in neither and cannot show up as drift.
+	 * The drift is then added to RECONCILE_SLOT as a delta: writers keep
+	 * adding theirs to the other slots, and the sum comes out right.
+	 *
+	 * Two instances reconciling at once compute the same drift. The second
+	 * one to write RECONCILE_SLOT gets a serialization failure and rolls
+	 * back instead of applying it twice.
+	 *
+	 * @return Report with every status whose totals did not match
+	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public Map<String, Object> reconcile() {
+		TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+		List<StatisticsDrift> drift;
+		boolean applied;
+		try {
+			drift = snapshot.execute(status -> correctDrift());
+			applied = !drift.isEmpty();
+		} catch (ConcurrencyFailureException e) {
+			log.info("Statistics aggregate is being reconciled by another instance: {}", e.getMessage());
+			drift = List.of();
+			applied = false;
+		}
+
+		if (applied) {
+			statisticsCache.invalidate();
+		}
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("checkedAt", LocalDateTime.now());
+		report.put("driftDetected", applied);
+		report.put("drift", drift);
+		return report;
+	}
+
+	/**
+	 * Inside the snapshot: find the drift and add it to RECONCILE_SLOT
+	 */
+	private List<StatisticsDrift> correctDrift() {
+		Map<String, StatusTotals> expected = transactionRepository.sumAmountByStatus().stream()
+				.collect(Collectors.toMap(StatusTotals::status, Function.identity()));
+		Map<String, StatusTotals> actual = statusStatisticsRepository.sumByStatus().stream()
+				.collect(Collectors.toMap(StatusTotals::status, Function.identity()));
+
+		List<StatisticsDrift> drift = new ArrayList<>();
+		Set<String> statuses = new TreeSet<>(expected.keySet());
+		statuses.addAll(actual.keySet());
+
+		for (String status : statuses) {
+			StatusTotals table = expected.getOrDefault(status, new StatusTotals(status, 0, BigDecimal.ZERO));
+			StatusTotals aggregate = actual.getOrDefault(status, new StatusTotals(status, 0, BigDecimal.ZERO));
+
+			if (table.transactionCount() != aggregate.transactionCount()
+					|| table.totalAmount().compareTo(aggregate.totalAmount()) != 0) {
+				drift.add(new StatisticsDrift(status,
+						table.transactionCount(), aggregate.transactionCount(),
+						table.totalAmount(), aggregate.totalAmount()));
+			}
+		}
+
+		if (!drift.isEmpty()) {
+			log.warn("Statistics aggregate drifted for {} status(es), correcting: {}", drift.size(), drift);
+			// Status order, like the writers
+			for (StatisticsDrift entry : drift) {
+				statusStatisticsRepository.applyDelta(entry.status(), RECONCILE_SLOT,
+						entry.expectedCount() - entry.actualCount(),
+						entry.expectedAmount().subtract(entry.actualAmount()));
+			}
+		}
+		return drift;
+	}
+
+	/**
+	 * Reconcile on startup (fills the aggregate for existing data) and then
+	 * every expense-tracker.stats.reconcile-interval-ms (default 1 hour)
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${expense-tracker.stats.reconcile-interval-ms:3600000}",
+			fixedDelayString = "${expense-tracker.stats.reconcile-interval-ms:3600000}")
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void scheduledReconcile() {
+		reconcile();
+	}
+}
@@ -0,0 +1,23 @@
+package com.fintech.expense_tracker.stats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * TransactionTotals - projection of COUNT(*), SUM(amount), AVG(amount)
+ *
+ * One row computed by PostgreSQL instead of a list of entities.
+ *
+ * @param transactionCount Number of matching transactions
+ * @param totalAmount Sum of amounts (0 when nothing matched)
+ * @param averageAmount Average amount, 2 decimals (0 when nothing matched)
+ */
+public record TransactionTotals(long transactionCount, BigDecimal totalAmount, BigDecimal averageAmount) {
+
+	public TransactionTotals {
+		totalAmount = totalAmount == null ? BigDecimal.ZERO : totalAmount;
+		averageAmount = averageAmount == null
+				? BigDecimal.ZERO
+				: averageAmount.setScale(2, RoundingMode.HALF_UP);
+	}
+}
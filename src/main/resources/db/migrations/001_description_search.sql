@@ -0,0 +1,23 @@
+-- Full-text description search (GET /api/transactions/search)
+--
+-- One-off migration, kept out of schema.sql because it is too heavy for every startup.
+-- Run it once per database BEFORE deploying the version that searches descriptions:
+--   psql -v ON_ERROR_STOP=1 -d expense_tracker_db -f 001_description_search.sql
+-- psql runs each statement in its own transaction, which CREATE INDEX CONCURRENTLY needs.
+-- Safe to run again.
+--
+-- - Adding the stored column rewrites the table under an ACCESS EXCLUSIVE lock (reads
+--   and writes wait until it is done): run it in a quiet period. lock_timeout makes it
+--   give up instead of queueing every other query behind a long-running transaction.
+-- - The index is built without blocking writes. A failed build leaves an INVALID index:
+--   DROP INDEX CONCURRENTLY idx_description_tsv; then run this file again.
+--
+-- The 'english' configuration must match the one in the search queries
+-- (Transaction.searchByDescription...).
+
+SET lock_timeout = '5s';
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS description_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('english', COALESCE(description, ''))) STORED;
+RESET lock_timeout;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_description_tsv ON transactions USING GIN (description_tsv);
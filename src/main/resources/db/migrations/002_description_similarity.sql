@@ -0,0 +1,20 @@
+-- Fuzzy description search (GET /api/transactions/search?mode=fuzzy)
+--
+-- One-off migration, run once per database BEFORE deploying the version with fuzzy search
+-- (see 001_description_search.sql for how). Safe to run again.
+--
+-- A trigram GiST index, not GIN: GiST can also return rows in distance order, so
+--   WHERE :query <% description ORDER BY :query <<-> description LIMIT n
+-- stops after n rows however many descriptions match (Transaction.searchByDescriptionSimilarity).
+-- GIN can only filter, so every match had to be fetched and sorted.
+--
+-- - pg_trgm ships with PostgreSQL; creating it needs CREATE privilege on the database.
+-- - The index is built without blocking writes. A failed build leaves an INVALID index:
+--   DROP INDEX CONCURRENTLY idx_description_trgm_gist; then run this file again.
+-- - The GIN index that earlier versions created at startup is dropped afterwards.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_description_trgm_gist ON transactions USING GIST (description gist_trgm_ops);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_description_trgm;
@@ -0,0 +1,21 @@
+-- Drop the unsharded statistics tables
+--
+-- One-off migration. Unlike the others, run it AFTER the version with slotted counters
+-- (transaction_status_counters, transaction_rollup_counters) is deployed and no instance
+-- of an earlier version is left running:
+--   psql -v ON_ERROR_STOP=1 -d expense_tracker_db -f 003_sharded_statistics.sql
+-- Safe to run again.
+--
+-- - The new tables are created and filled at startup: the status counters by reconciliation,
+--   the rollups by their backfill. Earlier instances kept writing the old tables only, so the
+--   rollup backfill marker is cleared: the next startup rebuilds the rollups (it blocks rollup
+--   writes while it scans transactions once - restart one instance in a quiet period).
+--   The status counters need nothing, the next reconciliation corrects them.
+-- - Dropping a table waits for queries still reading it (ACCESS EXCLUSIVE lock).
+
+SET lock_timeout = '5s';
+
+DELETE FROM backfill_markers WHERE name = 'transaction_rollup_counters';
+
+DROP TABLE IF EXISTS transaction_status_stats;
+DROP TABLE IF EXISTS transaction_rollups;
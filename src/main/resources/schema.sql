@@ -0,0 +1,49 @@
+-- Schema additions that Hibernate (ddl-auto=update) cannot create itself.
+-- Runs on every startup AFTER Hibernate (spring.jpa.defer-datasource-initialization=true),
+-- so every statement must be safe to run again.
+-- Anything that rewrites a table or needs CREATE INDEX CONCURRENTLY belongs in
+-- db/migrations instead, run once by hand before deploying.
+
+-- Transaction ID sequence (see SequenceBlockIdGenerator)
+-- INCREMENT BY is the block size: each nextval() reserves 50 IDs
+CREATE SEQUENCE IF NOT EXISTS transaction_id_seq START WITH 50 INCREMENT BY 50 MINVALUE 0;
+
+-- Move the sequence past IDs created by the old max + 1 generator.
+-- Only ever calls nextval(), so it is safe while other instances are running.
+SELECT nextval('transaction_id_seq')
+FROM generate_series(1, (
+    SELECT CAST(CEIL(GREATEST(ids.max_id - COALESCE(seq.last_value, 0), 0)
+                / CAST(seq.increment_by AS NUMERIC)) AS INTEGER)
+    FROM pg_sequences seq,
+         (SELECT COALESCE(MAX(CAST(SUBSTRING(transaction_id FROM 3) AS BIGINT)), 0) AS max_id
+          FROM transactions
+          WHERE transaction_id ~ '^TX[0-9]{1,18}$') ids
+    WHERE seq.sequencename = 'transaction_id_seq'
+));
+
+-- Keyset pagination (GET /api/transactions) and /recent seek and sort on
+-- (timestamp, transaction_id); transaction_id breaks ties at the cursor timestamp.
+-- The status variant serves ?status= pages without an account.
+-- Both replace the old single-column idx_timestamp.
+CREATE INDEX IF NOT EXISTS idx_timestamp_transaction_id ON transactions (timestamp, transaction_id);
+CREATE INDEX IF NOT EXISTS idx_status_timestamp_transaction_id ON transactions (status, timestamp, transaction_id);
+DROP INDEX IF EXISTS idx_timestamp;
+
+-- Sender/receiver lookups (findByFromAccount, findByToAccount, account statistics),
+-- already filtered by status and in timestamp order
+CREATE INDEX IF NOT EXISTS idx_from_account_status_timestamp ON transactions (from_account, status, timestamp);
+CREATE INDEX IF NOT EXISTS idx_to_account_status_timestamp ON transactions (to_account, status, timestamp);
+
+-- Account reads (TransactionRepository.findByAccount..., keyset pages with an account)
+-- seek on the account's ledger legs, newest first
+CREATE INDEX IF NOT EXISTS idx_ledger_account_timestamp ON ledger_entries (account, timestamp, transaction_id);
+
+-- As-of balances (LedgerPostingRepository): index-only sums of an account's postings in a time range,
+-- and the accounts with postings since the previous checkpoint run
+CREATE INDEX IF NOT EXISTS idx_ledger_postings_account_posted_at ON ledger_postings (account, posted_at) INCLUDE (amount);
+CREATE INDEX IF NOT EXISTS idx_ledger_postings_posted_at ON ledger_postings (posted_at);
+
+-- Full-text description search (description_tsv, idx_description_tsv) is NOT created here:
+-- it rewrites the table, so it is a one-off migration (db/migrations/001_description_search.sql).
+-- Fuzzy description search (pg_trgm, idx_description_trgm_gist) likewise:
+-- db/migrations/002_description_similarity.sql.
@@ -0,0 +1,47 @@
+package com.fintech.expense_tracker;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryFormatsConfigTests {
+
+	private static final TransactionSummary SUMMARY = new TransactionSummary("TX1", "001", "002",
+			new BigDecimal("10.00"), "ZAR", "completed", LocalDateTime.parse("2026-01-01T00:00"), "Rent");
+
+	// As spring.jackson.property-naming-strategy and spring.jackson.datatype.datetime.* would configure it
+	private final JsonMapper json = JsonMapper.builder()
+			.propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+			.enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build();
+
+	@Test
+	void cborCarriesTheSameFieldsAsJson() {
+		CBORMapper cbor = BinaryFormatsConfig.configuredLike(json, CBORMapper.builder()).build();
+
+		JsonNode expected = json.readTree(json.writeValueAsString(SUMMARY));
+		JsonNode actual = cbor.readTree(cbor.writeValueAsBytes(SUMMARY));
+		assertThat(actual.propertyNames()).containsExactlyElementsOf(expected.propertyNames());
+		assertThat(actual.get("transaction_id").asString()).isEqualTo("TX1");
+		assertThat(actual.get("timestamp").isArray()).isTrue();
+	}
+
+	@Test
+	void smileCarriesTheSameFieldsAsJson() {
+		SmileMapper smile = BinaryFormatsConfig.configuredLike(json, SmileMapper.builder()).build();
+
+		JsonNode expected = json.readTree(json.writeValueAsString(SUMMARY));
+		JsonNode actual = smile.readTree(smile.writeValueAsBytes(SUMMARY));
+		assertThat(actual.propertyNames()).containsExactlyElementsOf(expected.propertyNames());
+		assertThat(actual.get("from_account").asString()).isEqualTo("001");
+	}
+}
@@ -0,0 +1,183 @@
+package com.fintech.expense_tracker;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentTransactionsTests {
+
+	private static final LocalDateTime START = LocalDateTime.parse("2026-01-01T00:00");
+
+	private RecentTransactions buffer(int perAccount, int maxEntries) {
+		RecentTransactions buffer = new RecentTransactions();
+		ReflectionTestUtils.setField(buffer, "perAccount", perAccount);
+		ReflectionTestUtils.setField(buffer, "maxEntries", maxEntries);
+		ReflectionTestUtils.setField(buffer, "maxAgeMs", 0L);
+		return buffer;
+	}
+
+	private static Transaction transaction(int minute, String from, String to) {
+		Transaction transaction = new Transaction(from, to, new BigDecimal("10.00"));
+		transaction.setTransactionId("TX%04d".formatted(minute));
+		transaction.setCurrency("ZAR");
+		transaction.setStatus("completed");
+		transaction.setTimestamp(START.plusMinutes(minute));
+		return transaction;
+	}
+
+	private static TransactionSummary summary(Transaction transaction) {
+		return new TransactionSummary(transaction.getTransactionId(), transaction.getFromAccount(),
+				transaction.getToAccount(), transaction.getAmount(), transaction.getCurrency(),
+				transaction.getStatus(), transaction.getTimestamp(), transaction.getDescription());
+	}
+
+	/**
+	 * Fake database: the newest n of the given history, counting calls
+	 */
+	private static IntFunction<List<TransactionSummary>> database(List<Transaction> history, AtomicInteger loads) {
+		return limit -> {
+			loads.incrementAndGet();
+			return history.stream().map(RecentTransactionsTests::summary)
+					.sorted(RecentTransactions.NEWEST_FIRST).limit(limit).toList();
+		};
+	}
+
+	private static List<String> ids(List<TransactionSummary> summaries) {
+		return summaries.stream().map(TransactionSummary::transactionId).toList();
+	}
+
+	@Test
+	void missLoadsOnceThenWritesAreServedFromTheRing() {
+		RecentTransactions buffer = buffer(4, 100);
+		List<Transaction> history = new ArrayList<>();
+		for (int minute = 1; minute <= 6; minute++) {
+			history.add(transaction(minute, "001", "002"));
+		}
+		AtomicInteger loads = new AtomicInteger();
+
+		assertThat(ids(buffer.get("001", 3, database(history, loads)))).containsExactly("TX0006", "TX0005", "TX0004");
+
+		Transaction created = transaction(7, "002", "001");
+		history.add(created);
+		buffer.recordSaved(List.of(created));
+
+		assertThat(ids(buffer.get("001", 4, database(history, loads))))
+				.containsExactly("TX0007", "TX0006", "TX0005", "TX0004");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void statusChangesAndDeletesAreApplied() {
+		RecentTransactions buffer = buffer(4, 100);
+		List<Transaction> history = new ArrayList<>(List.of(
+				transaction(1, "001", "002"), transaction(2, "001", "002"), transaction(3, "001", "002")));
+		AtomicInteger loads = new AtomicInteger();
+		buffer.get("001", 3, database(history, loads));
+
+		Transaction refunded = history.get(2);
+		refunded.setStatus("refunded");
+		buffer.recordSaved(List.of(refunded));
+		buffer.recordDeleted(history.remove(0));
+
+		List<TransactionSummary> recent = buffer.get("001", 3, database(history, loads));
+		assertThat(ids(recent)).containsExactly("TX0003", "TX0002");
+		assertThat(recent.get(0).status()).isEqualTo("refunded");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void accountsThatWereNeverReadAreNotBuffered() {
+		RecentTransactions buffer = buffer(4, 100);
+		Transaction created = transaction(1, "001", "002");
+		buffer.recordSaved(List.of(created));
+
+		AtomicInteger loads = new AtomicInteger();
+		assertThat(ids(buffer.get("001", 1, database(List.of(created), loads)))).containsExactly("TX0001");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void leastRecentlyReadAccountIsEvictedWhenFull() {
+		RecentTransactions buffer = buffer(2, 4);
+		List<Transaction> history = List.of(
+				transaction(1, "001", "009"), transaction(2, "001", "009"),
+				transaction(3, "002", "009"), transaction(4, "002", "009"),
+				transaction(5, "003", "009"), transaction(6, "003", "009"));
+		AtomicInteger loads = new AtomicInteger();
+
+		buffer.get("001", 2, database(history, loads));
+		buffer.get("002", 2, database(history, loads));
+		buffer.get("001", 2, database(history, loads));
+		buffer.get("003", 2, database(history, loads));
+		assertThat(loads).hasValue(3);
+
+		buffer.get("001", 2, database(history, loads));
+		assertThat(loads).hasValue(3);
+		buffer.get("002", 2, database(history, loads));
+		assertThat(loads).hasValue(4);
+	}
+
+	@Test
+	void writesDoNotCountAsReadsForEviction() {
+		RecentTransactions buffer = buffer(2, 4);
+		List<Transaction> history = new ArrayList<>(List.of(
+				transaction(1, "001", "009"), transaction(2, "001", "009"),
+				transaction(3, "002", "009"), transaction(4, "002", "009"),
+				transaction(5, "003", "009"), transaction(6, "003", "009")));
+		AtomicInteger loads = new AtomicInteger();
+
+		buffer.get("001", 2, database(history, loads));
+		buffer.get("002", 2, database(history, loads));
+		Transaction created = transaction(7, "001", "008");
+		history.add(created);
+		buffer.recordSaved(List.of(created));
+		buffer.get("003", 2, database(history, loads));
+		assertThat(loads).hasValue(3);
+
+		// 001 was written after 002 was read, but 002 was read more recently
+		buffer.get("002", 2, database(history, loads));
+		assertThat(loads).hasValue(3);
+		buffer.get("001", 2, database(history, loads));
+		assertThat(loads).hasValue(4);
+	}
+
+	@Test
+	void ringsGrowWithWritesAndTheCapCountsAllocatedSlots() {
+		RecentTransactions buffer = buffer(64, 1000);
+		List<Transaction> history = new ArrayList<>(List.of(transaction(1, "001", "002")));
+		AtomicInteger loads = new AtomicInteger();
+
+		buffer.get("001", 1, database(history, loads));
+		assertThat(ReflectionTestUtils.getField(buffer, "slotsHeld")).isEqualTo(8);
+
+		for (int minute = 2; minute <= 9; minute++) {
+			Transaction created = transaction(minute, "001", "002");
+			history.add(created);
+			buffer.recordSaved(List.of(created));
+		}
+		assertThat(ReflectionTestUtils.getField(buffer, "slotsHeld")).isEqualTo(16);
+		assertThat(ids(buffer.get("001", 9, database(history, loads))))
+				.containsExactly("TX0009", "TX0008", "TX0007", "TX0006", "TX0005", "TX0004", "TX0003", "TX0002", "TX0001");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void limitsAboveTheRingSizeGoToTheDatabase() {
+		RecentTransactions buffer = buffer(2, 100);
+		List<Transaction> history = List.of(
+				transaction(1, "001", "002"), transaction(2, "001", "002"), transaction(3, "001", "002"));
+		AtomicInteger loads = new AtomicInteger();
+
+		assertThat(buffer.get("001", 3, database(history, loads))).hasSize(3);
+		assertThat(buffer.get("001", 3, database(history, loads))).hasSize(3);
+		assertThat(loads).hasValue(2);
+	}
+}
@@ -0,0 +1,97 @@
+package com.fintech.expense_tracker;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Create latency against table size: 10k vs 1M existing transactions
+ *
+ * Not a unit test (needs the PostgreSQL database from application.properties).
+ * Use a scratch database: the filler rows are inserted into 'transactions'
+ * and removed again at the end. Run from the IDE, or:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.fintech.expense_tracker.TransactionCreateBenchmark
+ *
+ * For each table size, times CREATES calls of createTransaction (after
+ * WARMUP untimed ones) and reports mean, p50 and p99 in microseconds.
+ * ID generation no longer reads the table, so both sizes should match.
+ */
+public class TransactionCreateBenchmark {
+
+	private static final int[] TABLE_SIZES = {10_000, 1_000_000};
+	private static final int WARMUP = 200;
+	private static final int CREATES = 2_000;
+
+	// Filler rows: own ID prefix and accounts, written with plain SQL
+	// (no ledger, rollups or balances), so they can be deleted the same way
+	private static final String FILLER_PREFIX = "BENCH";
+
+	public static void main(String[] args) {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args)) {
+			TransactionService transactionService = context.getBean(TransactionService.class);
+			JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+			List<String> created = new ArrayList<>();
+			try {
+				for (int size : TABLE_SIZES) {
+					fill(jdbcTemplate, size);
+					long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+
+					for (int i = 0; i < WARMUP; i++) {
+						created.add(create(transactionService, i).getTransactionId());
+					}
+					long[] micros = new long[CREATES];
+					for (int i = 0; i < CREATES; i++) {
+						long start = System.nanoTime();
+						Transaction transaction = create(transactionService, i);
+						micros[i] = (System.nanoTime() - start) / 1_000;
+						created.add(transaction.getTransactionId());
+					}
+
+					Arrays.sort(micros);
+					System.out.printf("%,10d rows   mean %,6d us   p50 %,6d us   p99 %,6d us%n",
+							rows, Arrays.stream(micros).sum() / CREATES,
+							micros[CREATES / 2], micros[CREATES * 99 / 100]);
+				}
+			} finally {
+				// Through the service, so ledger, rollups and balances are reversed too
+				created.forEach(transactionService::deleteTransaction);
+				jdbcTemplate.update("DELETE FROM transactions WHERE transaction_id LIKE ?", FILLER_PREFIX + "%");
+			}
+		}
+	}
+
+	private static Transaction create(TransactionService transactionService, int i) {
+		Transaction transaction = new Transaction("BENCH" + i % 50, "BENCH" + (i + 1) % 50, new BigDecimal("10.00"));
+		return transactionService.createTransaction(transaction);
+	}
+
+	/**
+	 * Add filler rows until the table holds about 'size' transactions
+	 */
+	private static void fill(JdbcTemplate jdbcTemplate, int size) {
+		long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+		long fillers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE transaction_id LIKE ?",
+				Long.class, FILLER_PREFIX + "%");
+		if (existing >= size) {
+			return;
+		}
+		jdbcTemplate.update("""
+				INSERT INTO transactions
+				    (transaction_id, from_account, to_account, amount, currency, status, timestamp, description)
+				SELECT CAST(? AS VARCHAR) || g, 'FILL' || g % 5000, 'FILL' || (g + 1) % 5000, 10.00, 'ZAR', 'completed',
+				       TIMESTAMP '2020-01-01' + g * INTERVAL '1 second', 'Benchmark filler'
+				FROM generate_series(?, ?) g
+				""", FILLER_PREFIX, fillers + 1, fillers + size - existing);
+		jdbcTemplate.execute("ANALYZE transactions");
+	}
+}
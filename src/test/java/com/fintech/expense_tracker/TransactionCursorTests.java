@@ -0,0 +1,31 @@
+package com.fintech.expense_tracker;
+
+import com.fintech.expense_tracker.exceptions.InvalidOperationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionCursorTests {
+
+	@Test
+	void encodedCursorRoundTrips() {
+		TransactionCursor cursor = new TransactionCursor(TransactionCursor.Direction.PREV,
+				LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_000_000), "TX0042");
+
+		String encoded = cursor.encode();
+
+		assertThat(encoded).matches("[A-Za-z0-9_-]+");
+		assertThat(TransactionCursor.decode(encoded)).isEqualTo(cursor);
+	}
+
+	@Test
+	void tamperedCursorIsRejected() {
+		assertThatThrownBy(() -> TransactionCursor.decode("not a cursor"))
+				.isInstanceOf(InvalidOperationException.class);
+		assertThatThrownBy(() -> TransactionCursor.decode("TkVYVHxub3QtYS1kYXRlfFRYMQ"))
+				.isInstanceOf(InvalidOperationException.class);
+	}
+}
@@ -0,0 +1,25 @@
+package com.fintech.expense_tracker;
+
+import com.fintech.expense_tracker.exceptions.InvalidOperationException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionFieldTests {
+
+	@Test
+	void parsesJsonNamesInDeclarationOrder() {
+		assertThat(TransactionField.parse("timestamp, amount,transactionId,amount"))
+				.containsExactly(TransactionField.TRANSACTION_ID, TransactionField.AMOUNT, TransactionField.TIMESTAMP);
+	}
+
+	@Test
+	void rejectsUnknownOrEmptySelections() {
+		assertThatThrownBy(() -> TransactionField.parse("amount,password"))
+				.isInstanceOf(InvalidOperationException.class)
+				.hasMessageContaining("password");
+		assertThatThrownBy(() -> TransactionField.parse(" , "))
+				.isInstanceOf(InvalidOperationException.class);
+	}
+}
@@ -0,0 +1,95 @@
+package com.fintech.expense_tracker;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Heap cost of listing transactions: managed entities vs TransactionSummary records
+ *
+ * Not a unit test (needs the PostgreSQL database from application.properties
+ * with data in it). Run from the IDE, or:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.fintech.expense_tracker.TransactionProjectionBenchmark
+ *
+ * Loads the same newest 100k rows both ways and reports, per 100k rows:
+ * - allocated: bytes allocated by the query (GC pressure)
+ * - retained:  live heap while the result and persistence context are held
+ */
+public class TransactionProjectionBenchmark {
+
+	private static final int ROWS = 100_000;
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args)) {
+			TransactionRepository repository = context.getBean(TransactionRepository.class);
+			TransactionTemplate transactionTemplate =
+					new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+			transactionTemplate.setReadOnly(true);
+
+			for (int round = 1; round <= ROUNDS; round++) {
+				Result entities = measure(transactionTemplate,
+						() -> repository.findAllByOrderByTimestampDescTransactionIdDesc(Limit.of(ROWS)));
+				Result summaries = measure(transactionTemplate,
+						() -> repository.findNewestSummaries(Limit.of(ROWS)));
+
+				System.out.printf("round %d (%d rows)%n", round, entities.rows());
+				System.out.printf("  entity      allocated %,8d KB   retained %,8d KB   per 100k rows%n",
+						entities.allocatedPer100k() / 1024, entities.retainedPer100k() / 1024);
+				System.out.printf("  projection  allocated %,8d KB   retained %,8d KB   per 100k rows%n",
+						summaries.allocatedPer100k() / 1024, summaries.retainedPer100k() / 1024);
+			}
+		}
+	}
+
+	/**
+	 * Run one query inside a transaction (so the persistence context is
+	 * alive, as in a request) and measure heap while its result is held
+	 */
+	private static Result measure(TransactionTemplate transactionTemplate, Supplier<List<?>> query) {
+		return transactionTemplate.execute(status -> {
+			long before = usedHeapAfterGc();
+			long allocatedBefore = allocatedBytes();
+
+			List<?> rows = query.get();
+
+			long allocated = allocatedBytes() - allocatedBefore;
+			long retained = usedHeapAfterGc() - before;
+			return new Result(rows.size(), allocated, retained);
+		});
+	}
+
+	private static long usedHeapAfterGc() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		return threads.getCurrentThreadAllocatedBytes();
+	}
+
+	private record Result(int rows, long allocated, long retained) {
+
+		long allocatedPer100k() {
+			return rows == 0 ? 0 : allocated * ROWS / rows;
+		}
+
+		long retainedPer100k() {
+			return rows == 0 ? 0 : retained * ROWS / rows;
+		}
+	}
+}
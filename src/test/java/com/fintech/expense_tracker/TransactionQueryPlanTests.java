@@ -0,0 +1,479 @@
+package com.fintech.expense_tracker;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Query plan regression tests for every TransactionRepository method
+ *
+ * Seeds 'transactions' with a skewed synthetic distribution, calls each
+ * repository method and runs EXPLAIN (ANALYZE, BUFFERS) for every statement
+ * it sent, with the values it bound. Fails when:
+ * - the plan reads 'transactions' with a sequential scan, or
+ * - the query touches more shared buffers than its budget
+ *
+ * The repository is the real one: Spring Boot auto-configures JPA over the
+ * seeded database as it does for the application (entity scan, naming
+ * strategy, ddl-auto, schema.sql). Statements are captured where
+ * Hibernate prepares them, so derived, JPQL, Criteria and native queries
+ * are all checked as generated. Queries that have to read every row say
+ * why in their entry.
+ *
+ * Database:
+ * - By default an embedded PostgreSQL (real binaries, started per test class;
+ *   like PostgreSQL itself it refuses to run as root)
+ * - Or a locally started server, on a scratch database:
+ *     mvn test -Dtest=TransactionQueryPlanTests \
+ *         -Dexpense-tracker.plan-test.jdbc-url=jdbc:postgresql://localhost:5432/plan_test_db \
+ *         -Dexpense-tracker.plan-test.username=postgres -Dexpense-tracker.plan-test.password=...
+ * Everything is created in the 'query_plan_tests' schema, which is dropped first.
+ */
+class TransactionQueryPlanTests {
+
+	private static final int ROWS = 200_000;
+
+	// 8 KB blocks; the seeded table is a few thousand blocks
+	private static final int DEFAULT_BUFFER_BUDGET = 1_000;
+
+	private static final String SCHEMA = "query_plan_tests";
+	private static final String URL_PROPERTY = "expense-tracker.plan-test.jdbc-url";
+
+	private static final Pattern SHARED_BUFFERS = Pattern.compile("Buffers: shared(?: hit=(\\d+))?(?: read=(\\d+))?");
+
+	// Sample values, picked from the seeded data
+	private static final String STATUS = "completed";
+	private static final String RARE_STATUS = "refunded";
+	private static final String TRANSACTION_ID = "TX" + ROWS / 2;
+	private static final BigDecimal AMOUNT = new BigDecimal("20000.00");
+	private static final int LIMIT = 21;
+	private static final LocalDateTime FROM = LocalDateTime.parse("2025-01-01T00:00");
+	private static final LocalDateTime TO = LocalDateTime.parse("2025-02-01T00:00");
+	private static final TransactionCursor NEXT = TransactionCursor.after(LocalDateTime.parse("2024-06-01T00:00"), "TX43000");
+	private static final TransactionCursor PREV = TransactionCursor.before(LocalDateTime.parse("2024-06-01T00:00"), "TX43000");
+
+	private static EmbeddedPostgres embedded;
+	private static Connection connection;
+	private static DataSource dataSource;
+	private static ConfigurableApplicationContext context;
+	private static PlatformTransactionManager transactionManager;
+	private static TransactionRepository repository;
+
+	// A typical account: 500th busiest, a few dozen transactions per side
+	private static String account;
+
+	// Statements Hibernate prepared since capturing started (null = not capturing)
+	private static List<CapturedStatement> captured;
+
+	@BeforeAll
+	static void seedDatabase() throws Exception {
+		String url = System.getProperty(URL_PROPERTY);
+		if (url != null) {
+			connection = DriverManager.getConnection(url,
+					System.getProperty("expense-tracker.plan-test.username"),
+					System.getProperty("expense-tracker.plan-test.password"));
+		} else {
+			embedded = EmbeddedPostgres.start();
+			connection = embedded.getPostgresDatabase().getConnection();
+		}
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+			statement.execute("CREATE SCHEMA " + SCHEMA);
+			statement.execute("SET search_path TO " + SCHEMA);
+		}
+
+		// The JPA part of the application, booted by Spring Boot with its settings (naming strategy,
+		// ddl-auto=update, schema.sql) on the one connection, so what Hibernate runs can be captured
+		// and explained in its transaction
+		dataSource = new SingleConnectionDataSource(capturing(connection), true);
+		context = new SpringApplicationBuilder(PlanTestApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.main.banner-mode=off",
+						"--spring.jpa.show-sql=false",
+						"--logging.level.org.hibernate.SQL=INFO",
+						"--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO");
+		repository = context.getBean(TransactionRepository.class);
+		transactionManager = context.getBean(PlatformTransactionManager.class);
+		connection.setAutoCommit(true);
+
+		// One-off migrations, in file name order (autocommit, as psql runs them)
+		Resource[] migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/migrations/*.sql");
+		Arrays.sort(migrations, Comparator.comparing(Resource::getFilename));
+		for (Resource migration : migrations) {
+			ScriptUtils.executeSqlScript(connection, migration);
+		}
+
+		try (Statement statement = connection.createStatement()) {
+			// - accounts: a few very busy ones and a long tail (random()^2 skew)
+			// - status: 90% completed, 7% pending, 2% failed, 1% refunded
+			// - amounts: log-uniform between R 1 and about R 22,000
+			// - timestamps: rising with the ID, about every 5 minutes from 2024-01-01
+			statement.execute("SELECT setseed(0.42)");
+			statement.execute("""
+					INSERT INTO transactions
+					    (transaction_id, from_account, to_account, amount, currency, status, timestamp, description)
+					SELECT 'TX' || g,
+					       'ACC' || lpad(CAST(floor(5000 * random() ^ 2) AS INTEGER)::text, 4, '0'),
+					       'ACC' || lpad(CAST(floor(5000 * random() ^ 2) AS INTEGER)::text, 4, '0'),
+					       round(CAST(exp(random() * 10) AS NUMERIC), 2),
+					       'ZAR',
+					       CASE WHEN r < 0.90 THEN 'completed' WHEN r < 0.97 THEN 'pending'
+					            WHEN r < 0.99 THEN 'failed' ELSE 'refunded' END,
+					       TIMESTAMP '2024-01-01' + g * INTERVAL '5 minutes' + random() * INTERVAL '1 minute',
+					       (ARRAY['Woolworths groceries', 'Checkers', 'Pick n Pay', 'Uber trip', 'Takealot order',
+					              'Engen fuel', 'Vodacom airtime', 'Netflix', 'Salary', 'Rent'])
+					           [1 + CAST(floor(random() * 10) AS INTEGER)]
+					FROM (SELECT g, random() AS r FROM generate_series(1, %d) g) s
+					""".formatted(ROWS));
+			// One rare merchant (every 1000th transaction): description searches are usually this selective
+			statement.execute("UPDATE transactions SET description = 'Spotify Premium'"
+					+ " WHERE CAST(SUBSTRING(transaction_id FROM 3) AS INTEGER) % 1000 = 0");
+			// Both legs of every transaction, as LedgerService writes them
+			statement.execute("""
+					INSERT INTO ledger_entries (transaction_id, direction, account, amount, timestamp)
+					SELECT transaction_id, 'DEBIT', from_account, -amount, timestamp FROM transactions
+					UNION ALL
+					SELECT transaction_id, 'CREDIT', to_account, amount, timestamp FROM transactions
+					""");
+			statement.execute("VACUUM ANALYZE transactions");
+			statement.execute("VACUUM ANALYZE ledger_entries");
+
+			try (ResultSet rs = statement.executeQuery("""
+					SELECT from_account FROM transactions
+					GROUP BY from_account ORDER BY COUNT(*) DESC, from_account
+					OFFSET 500 LIMIT 1
+					""")) {
+				rs.next();
+				account = rs.getString(1);
+			}
+		}
+	}
+
+	@AfterAll
+	static void stopDatabase() throws Exception {
+		if (context != null) {
+			context.close();
+		}
+		if (connection != null) {
+			connection.setAutoCommit(true);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+			}
+			connection.close();
+		}
+		if (embedded != null) {
+			embedded.close();
+		}
+	}
+
+	// ==================== QUERY CATALOG ====================
+
+	static List<PlannedQuery> queries() {
+		Set<TransactionField> fields = TransactionField.parse("transactionId,amount");
+		Set<TransactionField> pageFields = TransactionField.parse("transactionId,timestamp,amount");
+		List<PlannedQuery> queries = new ArrayList<>();
+
+		// Account queries (ledger_entries joined to transactions)
+		queries.add(indexed("findByAccount", r -> r.findByAccount(account)));
+		queries.add(indexed("findByAccountAndStatus", r -> r.findByAccountAndStatus(account, STATUS)));
+		queries.add(indexed("countByAccount", r -> r.countByAccount(account)));
+		queries.add(indexed("findSummariesByAccount", r -> r.findSummariesByAccount(account)));
+		queries.add(indexed("findSummariesByAccount", r -> r.findSummariesByAccount(account, LIMIT)));
+		queries.add(indexed("findSummariesByAccountAndStatus", r -> r.findSummariesByAccountAndStatus(account, STATUS)));
+
+		// Full-text description search (GIN on description_tsv), first and later pages
+		queries.add(indexed("searchByDescription", r -> r.searchByDescription("spotify", null, LIMIT)));
+		queries.add(indexed("searchByDescription",
+				r -> r.searchByDescription("spotify", new TransactionSearchCursor(0.1f, TRANSACTION_ID), LIMIT)));
+		// Fuzzy search, selective (0.1% of rows match) and unselective (10% match): the nearest-first
+		// index scan stops at the limit either way, instead of reading and sorting every match
+		queries.add(indexed("searchByDescriptionSimilarity", r -> r.searchByDescriptionSimilarity("spotify", 0.5, LIMIT)));
+		queries.add(indexed("searchByDescriptionSimilarity",
+				r -> r.searchByDescriptionSimilarity("woolworths", 0.5, LIMIT)));
+
+		// Derived queries (full-scan entity lists use the rare status, so the test does not load 90% of the table)
+		queries.add(indexed("findByFromAccount", r -> r.findByFromAccount(account)));
+		queries.add(indexed("findByToAccount", r -> r.findByToAccount(account)));
+		queries.add(indexed("findAllByOrderByTimestampDescTransactionIdDesc",
+				r -> r.findAllByOrderByTimestampDescTransactionIdDesc(Limit.of(LIMIT))));
+		queries.add(fullScan("findByStatus", "a status can match most rows", r -> r.findByStatus(RARE_STATUS)));
+		queries.add(fullScan("findByAmountGreaterThan", "no index on amount", r -> r.findByAmountGreaterThan(AMOUNT)));
+
+		// Streams (NDJSON export); only the first row is read
+		queries.add(fullScan("streamAllBy", "exports every row", TransactionRepository::streamAllBy));
+		queries.add(fullScan("streamByStatus", "a status can match most rows", r -> r.streamByStatus(STATUS)));
+		queries.add(indexed("streamByAccount", r -> r.streamByAccount(account)));
+		queries.add(indexed("streamByAccountAndStatus", r -> r.streamByAccountAndStatus(account, STATUS)));
+
+		// Statistics (Criteria, only the given filters)
+		queries.add(indexed("sumAmount", r -> r.sumAmount(FROM, TO, account)));
+		queries.add(fullScan("sumAmount", "totals over all transactions read every row",
+				r -> r.sumAmount(null, null, null)));
+		queries.add(indexed("sumAmountGroupByStatus", r -> r.sumAmountGroupByStatus(FROM, TO, account)));
+		queries.add(fullScan("sumAmountGroupByStatus", "totals over all transactions read every row",
+				r -> r.sumAmountGroupByStatus(null, null, null)));
+		queries.add(fullScan("sumAmountByStatus", "reconciliation totals over all transactions",
+				TransactionRepository::sumAmountByStatus));
+
+		// Record projections
+		queries.add(indexed("findNewestSummaries", r -> r.findNewestSummaries(Limit.of(LIMIT))));
+		queries.add(fullScan("findSummariesByAmountGreaterThan", "no index on amount",
+				r -> r.findSummariesByAmountGreaterThan(AMOUNT)));
+		queries.add(fullScan("findSummariesByStatus", "a status can match most rows",
+				r -> r.findSummariesByStatus(RARE_STATUS)));
+
+		// Keyset pages (Criteria API)
+		queries.add(indexed("findPage", r -> r.findPage(null, null, null, LIMIT)));
+		queries.add(indexed("findPage", r -> r.findPage(account, STATUS, NEXT, LIMIT)));
+		queries.add(indexed("findPage", r -> r.findPage(null, null, NEXT, LIMIT)));
+		queries.add(indexed("findPage", r -> r.findPage(null, null, PREV, LIMIT)));
+		queries.add(indexed("findPage", r -> r.findPage(null, STATUS, NEXT, LIMIT)));
+
+		// Sparse fieldsets (?fields=)
+		queries.add(indexed("findPageFields", r -> r.findPageFields(null, null, NEXT, LIMIT, pageFields)));
+		queries.add(indexed("findFieldsById", r -> r.findFieldsById(TRANSACTION_ID, fields)));
+		queries.add(indexed("findNewestFields", r -> r.findNewestFields(LIMIT, fields)));
+		queries.add(fullScan("findFieldsByAmountGreaterThan", "no index on amount",
+				r -> r.findFieldsByAmountGreaterThan(AMOUNT, fields)));
+
+		return queries;
+	}
+
+	// ==================== TESTS ====================
+
+	@Test
+	void everyRepositoryMethodHasAPlanCheck() {
+		Set<String> declared = new TreeSet<>();
+		for (Class<?> repository : List.of(TransactionRepository.class, TransactionRepositoryCustom.class)) {
+			for (Method method : repository.getDeclaredMethods()) {
+				if (!method.isDefault() && !method.isSynthetic() && !Modifier.isStatic(method.getModifiers())) {
+					declared.add(method.getName());
+				}
+			}
+		}
+		Set<String> checked = queries().stream().map(PlannedQuery::method).collect(Collectors.toSet());
+
+		declared.removeAll(checked);
+		assertThat(declared).as("repository methods without an entry in queries()").isEmpty();
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("queries")
+	void planUsesIndexesWithinBudget(PlannedQuery query) throws SQLException {
+		List<String> plans = new ArrayList<>();
+		// One database transaction, so settings the method made for it (SET LOCAL) apply to the EXPLAINs
+		TransactionStatus transaction = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+		try {
+			for (CapturedStatement statement : call(query)) {
+				plans.add(explain(statement));
+			}
+		} finally {
+			transactionManager.rollback(transaction);
+		}
+		assertThat(plans).as("statements sent by %s", query).isNotEmpty();
+
+		if (query.seqScanReason() == null) {
+			for (String plan : plans) {
+				if (plan.contains("Seq Scan on transactions")) {
+					fail("%s switched to a sequential scan:%n%s", query, plan);
+				}
+				long buffers = sharedBuffers(plan);
+				if (buffers > query.bufferBudget()) {
+					fail("%s touched %d shared buffers (budget %d):%n%s", query, buffers, query.bufferBudget(), plan);
+				}
+			}
+		}
+	}
+
+	// ==================== HELPERS ====================
+
+	/**
+	 * Call the repository method, returning the statements it prepared
+	 */
+	private static List<CapturedStatement> call(PlannedQuery query) {
+		captured = new ArrayList<>();
+		try {
+			Object result = query.call().apply(repository);
+			if (result instanceof Stream<?> stream) {
+				try (stream) {
+					stream.findFirst();
+				}
+			}
+			return captured;
+		} finally {
+			captured = null;
+		}
+	}
+
+	/**
+	 * EXPLAIN (ANALYZE, BUFFERS) of a captured statement with the values it was bound to
+	 */
+	private static String explain(CapturedStatement captured) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + captured.sql())) {
+			for (Binding binding : captured.bindings()) {
+				bind(statement, binding.setter(), binding.args());
+			}
+			StringBuilder plan = new StringBuilder(captured.sql()).append('\n');
+			try (ResultSet rs = statement.executeQuery()) {
+				while (rs.next()) {
+					plan.append(rs.getString(1)).append('\n');
+				}
+			}
+			return plan.toString();
+		}
+	}
+
+	/**
+	 * Shared blocks hit + read by the top plan node (includes its children)
+	 */
+	private static long sharedBuffers(String plan) {
+		Matcher matcher = SHARED_BUFFERS.matcher(plan);
+		if (!matcher.find()) {
+			return 0;
+		}
+		long hit = matcher.group(1) == null ? 0 : Long.parseLong(matcher.group(1));
+		long read = matcher.group(2) == null ? 0 : Long.parseLong(matcher.group(2));
+		return hit + read;
+	}
+
+	/**
+	 * The connection handed to Hibernate: statements prepared while capturing
+	 * are recorded with their parameter values
+	 */
+	private static Connection capturing(Connection target) {
+		return (Connection) Proxy.newProxyInstance(TransactionQueryPlanTests.class.getClassLoader(),
+				new Class<?>[] {Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+					case "equals" -> proxy == args[0];
+					case "hashCode" -> System.identityHashCode(proxy);
+					case "prepareStatement" -> {
+						PreparedStatement statement = (PreparedStatement) invoke(target, method, args);
+						yield captured == null ? statement : recording(statement, (String) args[0]);
+					}
+					default -> invoke(target, method, args);
+				});
+	}
+
+	private static PreparedStatement recording(PreparedStatement target, String sql) {
+		CapturedStatement statement = new CapturedStatement(sql, new ArrayList<>());
+		captured.add(statement);
+		return (PreparedStatement) Proxy.newProxyInstance(TransactionQueryPlanTests.class.getClassLoader(),
+				new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+					// Parameter setters take (index, value, ...); setFetchSize and the like take one argument
+					if (method.getName().startsWith("set") && args != null && args.length >= 2) {
+						statement.bindings().add(new Binding(method, args));
+					}
+					return invoke(target, method, args);
+				});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static void bind(PreparedStatement target, Method setter, Object[] args) throws SQLException {
+		try {
+			setter.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause() instanceof SQLException sql ? sql : new SQLException(e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new SQLException(e);
+		}
+	}
+
+	private static PlannedQuery indexed(String method, Function<TransactionRepository, Object> call) {
+		return new PlannedQuery(method, call, DEFAULT_BUFFER_BUDGET, null);
+	}
+
+	private static PlannedQuery fullScan(String method, String reason, Function<TransactionRepository, Object> call) {
+		return new PlannedQuery(method, call, Integer.MAX_VALUE, reason);
+	}
+
+	/**
+	 * Auto-configuration from this package, as in the application: entities,
+	 * repositories and JPA settings, but none of the services
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	static class PlanTestApplication {
+
+		@Bean
+		DataSource dataSource() {
+			return dataSource;
+		}
+	}
+
+	/**
+	 * @param method Repository method called
+	 * @param call Calls it with sample values
+	 * @param bufferBudget Maximum shared blocks hit + read, per statement
+	 * @param seqScanReason Why this query reads every row (null = it must not)
+	 */
+	record PlannedQuery(String method, Function<TransactionRepository, Object> call, int bufferBudget,
+			String seqScanReason) {
+
+		@Override
+		public String toString() {
+			return seqScanReason == null ? method : method + " (full scan: " + seqScanReason + ")";
+		}
+	}
+
+	/**
+	 * A statement Hibernate prepared, with its parameter setter calls in order
+	 */
+	private record CapturedStatement(String sql, List<Binding> bindings) {
+	}
+
+	private record Binding(Method setter, Object[] args) {
+	}
+}
@@ -0,0 +1,29 @@
+package com.fintech.expense_tracker;
+
+import com.fintech.expense_tracker.exceptions.InvalidOperationException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionSearchCursorTests {
+
+	@Test
+	void encodedCursorRoundTripsTheExactRank() {
+		TransactionSearchCursor cursor = new TransactionSearchCursor(0.0333333f, "TX0042");
+
+		String encoded = cursor.encode();
+
+		assertThat(encoded).matches("[A-Za-z0-9_-]+");
+		assertThat(TransactionSearchCursor.decode(encoded)).isEqualTo(cursor);
+	}
+
+	@Test
+	void tamperedCursorIsRejected() {
+		assertThatThrownBy(() -> TransactionSearchCursor.decode("not a cursor"))
+				.isInstanceOf(InvalidOperationException.class);
+		// "abc|TX1"
+		assertThatThrownBy(() -> TransactionSearchCursor.decode("YWJjfFRYMQ"))
+				.isInstanceOf(InvalidOperationException.class);
+	}
+}
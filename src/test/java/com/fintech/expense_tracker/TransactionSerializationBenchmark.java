@@ -0,0 +1,87 @@
+package com.fintech.expense_tracker;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Serialization cost of a listing page: JSON vs CBOR vs Smile
+ *
+ * Not a unit test (no assertions, takes a while). Run from the IDE, or:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.fintech.expense_tracker.TransactionSerializationBenchmark
+ *
+ * Encodes the same GET /api/transactions envelope (100 summaries, the
+ * maximum page size) with each format and prints rows/second and bytes
+ * per row. No database or web server involved.
+ */
+public class TransactionSerializationBenchmark {
+
+	private static final int PAGE_SIZE = 100;
+	private static final int WARMUP_PAGES = 20_000;
+	private static final int MEASURED_PAGES = 50_000;
+
+	public static void main(String[] args) {
+		Map<String, Object> page = samplePage();
+
+		Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+		formats.put("json", JsonMapper.builder().build());
+		formats.put("cbor", CBORMapper.builder().build());
+		formats.put("smile", SmileMapper.builder().build());
+
+		System.out.printf("%-6s %14s %12s%n", "format", "rows/second", "bytes/row");
+		formats.forEach((name, mapper) -> {
+			long bytes = 0;
+			for (int i = 0; i < WARMUP_PAGES; i++) {
+				bytes += mapper.writeValueAsBytes(page).length;
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < MEASURED_PAGES; i++) {
+				bytes = mapper.writeValueAsBytes(page).length;
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			System.out.printf("%-6s %,14.0f %12.1f%n", name,
+					MEASURED_PAGES * (double) PAGE_SIZE / seconds,
+					bytes / (double) PAGE_SIZE);
+		});
+	}
+
+	/**
+	 * Listing envelope as built by TransactionController.getAllTransactions
+	 */
+	private static Map<String, Object> samplePage() {
+		Random random = new Random(42);
+		LocalDateTime now = LocalDateTime.of(2026, 10, 1, 12, 0);
+		List<TransactionSummary> rows = new ArrayList<>();
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			rows.add(new TransactionSummary(
+					String.format("TX%04d", 100_000 - i),
+					String.format("%03d", random.nextInt(1000)),
+					String.format("%03d", random.nextInt(1000)),
+					BigDecimal.valueOf(random.nextInt(5_000_000) + 1, 2),
+					"ZAR",
+					"completed",
+					now.minusSeconds(i * 37L).withNano(random.nextInt(1_000) * 1_000_000),
+					"Payment " + i));
+		}
+
+		Map<String, Object> page = new LinkedHashMap<>();
+		page.put("count", rows.size());
+		page.put("size", PAGE_SIZE);
+		page.put("transactions", rows);
+		page.put("nextCursor", TransactionCursor.after(now, "TX0001").encode());
+		page.put("prevCursor", null);
+		return page;
+	}
+}
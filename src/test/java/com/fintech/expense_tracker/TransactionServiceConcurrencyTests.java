@@ -0,0 +1,162 @@
+package com.fintech.expense_tracker;
+
+import com.fintech.expense_tracker.account.AccountBalanceService;
+import com.fintech.expense_tracker.account.AccountSummaryService;
+import com.fintech.expense_tracker.account.CounterpartyService;
+import com.fintech.expense_tracker.id.SequenceBlockIdGenerator;
+import com.fintech.expense_tracker.ledger.LedgerService;
+import com.fintech.expense_tracker.stats.StatisticsCache;
+import com.fintech.expense_tracker.stats.TransactionStatisticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrency tests for transaction ID generation
+ *
+ * Runs TransactionService without a database:
+ * - Repository is a Mockito mock that returns what it saves
+ * - The PostgreSQL sequence is simulated with an AtomicLong
+ */
+class TransactionServiceConcurrencyTests {
+
+	private static final int THREADS = 64;
+	private static final int CREATES_PER_THREAD = 200;
+	private static final int BLOCK_SIZE = 50;
+
+	private TransactionService transactionService;
+
+	// Simulated transaction_id_seq (INCREMENT BY 50)
+	private final AtomicLong sequence = new AtomicLong();
+
+	// Number of round trips to the (simulated) sequence
+	private final AtomicInteger sequenceQueries = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		TransactionRepository repository = mock(TransactionRepository.class);
+		when(repository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		SequenceBlockIdGenerator idGenerator = new SequenceBlockIdGenerator(null) {
+			@Override
+			protected long nextSequenceValue() {
+				sequenceQueries.incrementAndGet();
+				return sequence.addAndGet(BLOCK_SIZE);
+			}
+
+			@Override
+			protected List<Long> reserveBlocks(int blocks) {
+				sequenceQueries.incrementAndGet();
+				List<Long> highs = new ArrayList<>();
+				for (int i = 0; i < blocks; i++) {
+					highs.add(sequence.addAndGet(BLOCK_SIZE));
+				}
+				return highs;
+			}
+
+			@Override
+			protected int blockSize() {
+				return BLOCK_SIZE;
+			}
+		};
+
+		transactionService = new TransactionService();
+		ReflectionTestUtils.setField(transactionService, "transactionRepository", repository);
+		ReflectionTestUtils.setField(transactionService, "transactionIdGenerator", idGenerator);
+		ReflectionTestUtils.setField(transactionService, "ledgerService",
+				mock(LedgerService.class));
+		ReflectionTestUtils.setField(transactionService, "transactionStatisticsService",
+				mock(TransactionStatisticsService.class));
+		ReflectionTestUtils.setField(transactionService, "accountSummaryService",
+				mock(AccountSummaryService.class));
+		ReflectionTestUtils.setField(transactionService, "accountBalanceService",
+				mock(AccountBalanceService.class));
+		ReflectionTestUtils.setField(transactionService, "counterpartyService",
+				mock(CounterpartyService.class));
+		ReflectionTestUtils.setField(transactionService, "statisticsCache",
+				mock(StatisticsCache.class));
+		ReflectionTestUtils.setField(transactionService, "transactionVersions",
+				mock(TransactionVersions.class));
+		ReflectionTestUtils.setField(transactionService, "recentTransactions",
+				mock(RecentTransactions.class));
+	}
+
+	@Test
+	void parallelCreatesNeverShareAnId() throws Exception {
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+		try {
+			Future<?>[] futures = new Future<?>[THREADS];
+			for (int i = 0; i < THREADS; i++) {
+				futures[i] = executor.submit(() -> {
+					start.await();
+					for (int n = 0; n < CREATES_PER_THREAD; n++) {
+						Transaction created = transactionService.createTransaction(
+								new Transaction("001", "002", new BigDecimal("10.00")));
+						ids.add(created.getTransactionId());
+					}
+					return null;
+				});
+			}
+
+			// Release all threads at once to maximise contention
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(ids).hasSize(THREADS * CREATES_PER_THREAD);
+		assertThat(ids).allMatch(id -> id.matches("TX\\d{4,}"));
+	}
+
+	@Test
+	void idsKeepTheTxFormat() {
+		Transaction created = transactionService.createTransaction(
+				new Transaction("001", "002", new BigDecimal("10.00")));
+
+		assertThat(created.getTransactionId()).isEqualTo("TX0001");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void batchReservesAllIdsWithOneQuery() {
+		List<Transaction> batch = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			batch.add(new Transaction("001", "002", new BigDecimal("10.00")));
+		}
+
+		Map<String, Object> result = transactionService.createBatch(batch);
+
+		List<String> createdIds = (List<String>) result.get("createdIds");
+		assertThat(createdIds).hasSize(10_000).doesNotHaveDuplicates();
+		assertThat(createdIds.get(0)).isEqualTo("TX0001");
+		assertThat(createdIds.get(9_999)).isEqualTo("TX10000");
+		assertThat(sequenceQueries).hasValue(1);
+	}
+}
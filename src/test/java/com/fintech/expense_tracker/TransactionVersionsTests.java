@@ -0,0 +1,39 @@
+package com.fintech.expense_tracker;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionVersionsTests {
+
+	private final TransactionVersions versions = new TransactionVersions();
+
+	@Test
+	void writeChangesOnlyTheInvolvedAccountsAndGlobal() {
+		ReflectionTestUtils.setField(versions, "maxAgeMs", 0L);
+		String global = versions.globalEtag();
+		String sender = versions.accountEtag("001");
+		String receiver = versions.accountEtag("002");
+		String bystander = versions.accountEtag("003");
+
+		versions.recordChange(List.of("001", "002"));
+
+		assertThat(versions.globalEtag()).isNotEqualTo(global);
+		assertThat(versions.accountEtag("001")).isNotEqualTo(sender);
+		assertThat(versions.accountEtag("002")).isNotEqualTo(receiver);
+		assertThat(versions.accountEtag("003")).isEqualTo(bystander);
+	}
+
+	@Test
+	void etagsAreWeakAndInstanceSpecific() {
+		ReflectionTestUtils.setField(versions, "maxAgeMs", 0L);
+		TransactionVersions otherInstance = new TransactionVersions();
+		ReflectionTestUtils.setField(otherInstance, "maxAgeMs", 0L);
+
+		assertThat(versions.globalEtag()).startsWith("W/\"").endsWith("\"");
+		assertThat(versions.globalEtag()).isNotEqualTo(otherInstance.globalEtag());
+	}
+}
@@ -0,0 +1,94 @@
+package com.fintech.expense_tracker.account;
+
+import com.fintech.expense_tracker.Transaction;
+import com.fintech.expense_tracker.ledger.LedgerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AccountBalanceServiceTests {
+
+	private AccountBalanceRepository repository;
+	private LedgerService ledgerService;
+	private AccountBalanceService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(AccountBalanceRepository.class);
+		service = new AccountBalanceService();
+		ReflectionTestUtils.setField(service, "accountBalanceRepository", repository);
+		ledgerService = mock(LedgerService.class);
+		ReflectionTestUtils.setField(service, "ledgerService", ledgerService);
+	}
+
+	private static Transaction transaction(String from, String to, String amount, String status) {
+		Transaction transaction = new Transaction(from, to, new BigDecimal(amount));
+		transaction.setStatus(status);
+		return transaction;
+	}
+
+	@Test
+	void completedTransfersAreNettedPerAccountInAccountOrder() {
+		service.recordCreated(List.of(
+				transaction("003", "001", "100.00", "completed"),
+				transaction("001", "002", "30.00", "completed")));
+
+		InOrder order = inOrder(repository);
+		order.verify(repository).applyDelta("001", new BigDecimal("70.00"));
+		order.verify(repository).applyDelta("002", new BigDecimal("30.00"));
+		order.verify(repository).applyDelta("003", new BigDecimal("-100.00"));
+	}
+
+	@Test
+	void pendingTransfersOnlyCreateTheRows() {
+		service.recordCreated(List.of(transaction("001", "002", "50.00", "pending")));
+
+		verify(repository).applyDelta("001", BigDecimal.ZERO);
+		verify(repository).applyDelta("002", BigDecimal.ZERO);
+		verify(ledgerService, never()).recordMoved(anyList(), anyBoolean());
+	}
+
+	@Test
+	void refundMovesTheMoneyBack() {
+		Transaction refunded = transaction("001", "002", "50.00", "refunded");
+
+		service.recordStatusChange(refunded, "completed");
+
+		verify(repository).applyDelta("001", new BigDecimal("50.00"));
+		verify(repository).applyDelta("002", new BigDecimal("-50.00"));
+		verify(ledgerService).recordMoved(List.of(refunded), true);
+	}
+
+	@Test
+	void completingAPendingTransferMovesTheMoney() {
+		Transaction completed = transaction("001", "002", "50.00", "completed");
+
+		service.recordStatusChange(completed, "pending");
+
+		verify(repository).applyDelta("001", new BigDecimal("-50.00"));
+		verify(repository).applyDelta("002", new BigDecimal("50.00"));
+		verify(ledgerService).recordMoved(List.of(completed), false);
+	}
+
+	@Test
+	void statusChangesOutsideCompletedChangeNothing() {
+		service.recordStatusChange(transaction("001", "002", "50.00", "failed"), "pending");
+		service.recordDeleted(transaction("001", "002", "50.00", "pending"));
+
+		verify(repository, never()).applyDelta(anyString(), any());
+		verify(ledgerService, never()).recordMoved(anyList(), anyBoolean());
+	}
+}
@@ -0,0 +1,160 @@
+package com.fintech.expense_tracker.account;
+
+import com.fintech.expense_tracker.ledger.LedgerPostingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BalanceCheckpointServiceTests {
+
+	private static final String ACCOUNT = "001";
+
+	// Fake database: ledger postings of ACCOUNT and its checkpoints by as_of
+	private final List<Posting> postings = new ArrayList<>();
+	private final TreeMap<LocalDateTime, BigDecimal> checkpoints = new TreeMap<>();
+
+	private final LocalDateTime now = LocalDateTime.now();
+
+	private BalanceCheckpointRepository checkpointRepository;
+	private BalanceCheckpointService service;
+
+	@BeforeEach
+	void setUp() {
+		checkpointRepository = mock(BalanceCheckpointRepository.class);
+		when(checkpointRepository.findLatest(anyString(), any(), any())).thenAnswer(call -> {
+			Map.Entry<LocalDateTime, BigDecimal> nearest = checkpoints.floorEntry(call.getArgument(1));
+			return nearest == null ? List.of() : List.of(checkpoint(nearest.getKey(), nearest.getValue()));
+		});
+		when(checkpointRepository.findAll(any(Pageable.class)))
+				.thenAnswer(call -> new PageImpl<>(List.of()));
+		doAnswer(call -> checkpoints.putIfAbsent(call.getArgument(1), call.getArgument(2)))
+				.when(checkpointRepository).insertIfAbsent(anyString(), any(), any());
+
+		LedgerPostingRepository postingRepository = mock(LedgerPostingRepository.class);
+		when(postingRepository.sumPosted(anyString(), any(), any()))
+				.thenAnswer(call -> sum(call.getArgument(1), call.getArgument(2)));
+		when(postingRepository.countPostings(anyString(), any(), any())).thenAnswer(call -> postings.stream()
+				.filter(posting -> posting.within(call.getArgument(1), call.getArgument(2)))
+				.count());
+		when(postingRepository.findActiveAccounts(any(), any())).thenReturn(List.of(ACCOUNT));
+
+		AccountBalanceRepository balanceRepository = mock(AccountBalanceRepository.class);
+		when(balanceRepository.existsById(ACCOUNT)).thenReturn(true);
+
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		when(transactionTemplate.execute(any())).thenAnswer(call ->
+				call.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+		service = new BalanceCheckpointService();
+		ReflectionTestUtils.setField(service, "balanceCheckpointRepository", checkpointRepository);
+		ReflectionTestUtils.setField(service, "accountBalanceRepository", balanceRepository);
+		ReflectionTestUtils.setField(service, "ledgerPostingRepository", postingRepository);
+		ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+		ReflectionTestUtils.setField(service, "checkpointEvery", 3L);
+
+		// Five hours of history, one transfer reversed; the last posting is newer than any checkpoint
+		postings.add(new Posting(now.minusHours(5), "100.00"));
+		postings.add(new Posting(now.minusHours(4), "-30.00"));
+		postings.add(new Posting(now.minusHours(3), "45.50"));
+		postings.add(new Posting(now.minusHours(2), "200.00"));
+		postings.add(new Posting(now.minusMinutes(150), "-45.50"));
+		postings.add(new Posting(now.minusMinutes(20), "-10.00"));
+	}
+
+	private static BalanceCheckpoint checkpoint(LocalDateTime asOf, BigDecimal balance) {
+		BalanceCheckpoint.Key key = new BalanceCheckpoint.Key();
+		ReflectionTestUtils.setField(key, "accountId", ACCOUNT);
+		ReflectionTestUtils.setField(key, "asOf", asOf);
+		BalanceCheckpoint checkpoint = new BalanceCheckpoint();
+		ReflectionTestUtils.setField(checkpoint, "id", key);
+		ReflectionTestUtils.setField(checkpoint, "balance", balance);
+		return checkpoint;
+	}
+
+	/**
+	 * Postings in (after, upTo] - what sumPosted returns, and from the
+	 * beginning the full re-sum an as-of balance must equal
+	 */
+	private BigDecimal sum(LocalDateTime after, LocalDateTime upTo) {
+		return postings.stream()
+				.filter(posting -> posting.within(after, upTo))
+				.map(posting -> posting.amount)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+	private BigDecimal fullSum(LocalDateTime asOf) {
+		return sum(LocalDateTime.MIN, asOf);
+	}
+
+	@Test
+	void checkpointPlusReplayEqualsTheFullSum() {
+		service.createCheckpoints();
+
+		assertThat(checkpoints).hasSize(1);
+		LocalDateTime horizon = checkpoints.firstKey();
+		assertThat(horizon).isBetween(
+				now.minus(BalanceCheckpointService.SETTLE).truncatedTo(ChronoUnit.MINUTES),
+				LocalDateTime.now().minus(BalanceCheckpointService.SETTLE));
+		assertThat(checkpoints.get(horizon)).isEqualByComparingTo(fullSum(horizon));
+
+		for (LocalDateTime asOf : List.of(now.minusHours(6), now.minusHours(4), now.minusMinutes(90),
+				horizon, now.minusMinutes(30), now)) {
+			BalanceAsOf balance = service.getBalanceAsOf(ACCOUNT, asOf);
+			assertThat(balance.balance()).as("balance as of %s", asOf).isEqualByComparingTo(fullSum(asOf));
+		}
+		assertThat(service.getBalanceAsOf(ACCOUNT, now).checkpointAsOf()).isEqualTo(horizon);
+		assertThat(service.getBalanceAsOf(ACCOUNT, now.minusHours(4)).checkpointAsOf()).isNull();
+	}
+
+	@Test
+	void refundOfACoveredTransactionLeavesEarlierBalancesAndCheckpoints() {
+		service.createCheckpoints();
+		LocalDateTime horizon = checkpoints.firstKey();
+		BigDecimal checkpointed = checkpoints.get(horizon);
+		BigDecimal before = service.getBalanceAsOf(ACCOUNT, now.minusHours(3)).balance();
+
+		// completed -> refunded: LedgerService posts the reversal now
+		LocalDateTime refundedAt = LocalDateTime.now();
+		postings.add(new Posting(refundedAt, "30.00"));
+
+		assertThat(checkpoints.get(horizon)).isEqualByComparingTo(checkpointed);
+		assertThat(service.getBalanceAsOf(ACCOUNT, now.minusHours(3)).balance()).isEqualByComparingTo(before)
+				.isEqualByComparingTo(new BigDecimal("115.50"));
+		assertThat(service.getBalanceAsOf(ACCOUNT, refundedAt).balance())
+				.isEqualByComparingTo(fullSum(now).add(new BigDecimal("30.00")));
+	}
+
+	private static final class Posting {
+
+		final LocalDateTime timestamp;
+		final BigDecimal amount;
+
+		Posting(LocalDateTime timestamp, String amount) {
+			this.timestamp = timestamp;
+			this.amount = new BigDecimal(amount);
+		}
+
+		boolean within(LocalDateTime after, LocalDateTime upTo) {
+			return timestamp.isAfter(after) && !timestamp.isAfter(upTo);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.fintech.expense_tracker.account;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTests {
+
+	@Test
+	void estimatesStayWithinThreeStandardErrors() {
+		for (int distinct : new int[] {10, 1_000, 100_000}) {
+			HyperLogLog sketch = new HyperLogLog();
+			for (int i = 0; i < distinct; i++) {
+				sketch.add(String.format("%03d", i));
+				sketch.add(String.format("%03d", i));
+			}
+			assertThat((double) sketch.estimate())
+					.isCloseTo(distinct, within(distinct * 3 * HyperLogLog.STANDARD_ERROR + 1));
+		}
+	}
+
+	@Test
+	void mergeCountsOverlapOnce() {
+		HyperLogLog january = new HyperLogLog();
+		HyperLogLog february = new HyperLogLog();
+		HyperLogLog both = new HyperLogLog();
+		for (int i = 0; i < 5_000; i++) {
+			january.add("ACC" + i);
+			both.add("ACC" + i);
+		}
+		for (int i = 2_500; i < 7_500; i++) {
+			february.add("ACC" + i);
+			both.add("ACC" + i);
+		}
+
+		january.merge(february);
+		assertThat(january.estimate()).isEqualTo(both.estimate());
+	}
+
+	@Test
+	void bytesRoundTrip() {
+		HyperLogLog sketch = new HyperLogLog();
+		sketch.add("001");
+		sketch.add("002");
+
+		HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+		assertThat(restored.toBytes()).isEqualTo(sketch.toBytes());
+		assertThat(restored.estimate()).isEqualTo(2);
+	}
+}
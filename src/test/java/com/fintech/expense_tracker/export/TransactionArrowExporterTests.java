@@ -0,0 +1,118 @@
+package com.fintech.expense_tracker.export;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.util.Text;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionArrowExporterTests {
+
+	private static final List<List<Object>> ROWS = List.of(
+			row("TX1", "001", "002", "10.00", "ZAR", "completed", "2026-01-01T08:00:00.123456", "Rent"),
+			row("TX2", "002", "003", "0.01", null, null, "2026-01-01T09:00", null),
+			row("TX3", "003", "001", "12345678901234567.89", "ZAR", "pending", "2026-01-02T00:00", "Café"),
+			row("TX4", "001", "003", "250.50", null, "refunded", "2026-01-02T00:00:00.000001", ""),
+			row("TX5", "002", "001", "1.00", "ZAR", "failed", "2026-01-03T23:59:59.999999", null));
+
+	private static List<Object> row(String id, String from, String to, String amount, String currency,
+			String status, String timestamp, String description) {
+		return Arrays.asList(id, from, to, new BigDecimal(amount), currency, status,
+				LocalDateTime.parse(timestamp), description);
+	}
+
+	/**
+	 * Rows through RowGroupWriter, as export() feeds them from the ResultSet
+	 */
+	private static byte[] write(List<List<Object>> rows, int rowGroupSize) throws Exception {
+		AtomicInteger current = new AtomicInteger();
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getString(anyInt())).thenAnswer(call -> rows.get(current.get()).get(call.<Integer>getArgument(0) - 1));
+		when(rs.getBigDecimal(4)).thenAnswer(call -> rows.get(current.get()).get(3));
+		when(rs.getObject(7, LocalDateTime.class)).thenAnswer(call -> rows.get(current.get()).get(6));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (BufferAllocator allocator = new RootAllocator();
+				VectorSchemaRoot root = VectorSchemaRoot.create(TransactionArrowExporter.SCHEMA, allocator);
+				ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(out))) {
+			TransactionArrowExporter.RowGroupWriter rowGroups =
+					new TransactionArrowExporter.RowGroupWriter(root, writer, rowGroupSize);
+			writer.start();
+			for (int i = 0; i < rows.size(); i++) {
+				current.set(i);
+				rowGroups.append(rs);
+			}
+			rowGroups.flush();
+			writer.end();
+			assertThat(rowGroups.total).isEqualTo(rows.size());
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Read the stream back: one list of row values per record batch
+	 */
+	private static List<List<List<Object>>> read(byte[] stream) throws Exception {
+		List<List<List<Object>>> batches = new ArrayList<>();
+		try (BufferAllocator allocator = new RootAllocator();
+				ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(stream), allocator)) {
+			VectorSchemaRoot root = reader.getVectorSchemaRoot();
+			assertThat(root.getSchema()).isEqualTo(TransactionArrowExporter.SCHEMA);
+			while (reader.loadNextBatch()) {
+				List<List<Object>> batch = new ArrayList<>();
+				for (int i = 0; i < root.getRowCount(); i++) {
+					List<Object> row = new ArrayList<>();
+					for (Field field : root.getSchema().getFields()) {
+						Object value = root.getVector(field.getName()).getObject(i);
+						row.add(value instanceof Text text ? text.toString() : value);
+					}
+					batch.add(row);
+				}
+				batches.add(batch);
+			}
+		}
+		return batches;
+	}
+
+	@Test
+	void rowsRoundTripAcrossRowGroupsWithNulls() throws Exception {
+		List<List<List<Object>>> batches = read(write(ROWS, 2));
+
+		assertThat(batches).extracting(List::size).containsExactly(2, 2, 1);
+		assertThat(batches.stream().flatMap(List::stream).toList()).isEqualTo(ROWS);
+	}
+
+	@Test
+	void fullLastRowGroupIsNotFollowedByAnEmptyBatch() throws Exception {
+		List<List<List<Object>>> batches = read(write(ROWS.subList(0, 4), 2));
+
+		assertThat(batches).extracting(List::size).containsExactly(2, 2);
+		assertThat(batches.stream().flatMap(List::stream).toList()).isEqualTo(ROWS.subList(0, 4));
+	}
+
+	@Test
+	void emptyExportIsOneEmptyBatch() throws Exception {
+		List<List<List<Object>>> batches = read(write(List.of(), 2));
+
+		assertThat(batches).extracting(List::size).containsExactly(0);
+	}
+}
@@ -0,0 +1,73 @@
+package com.fintech.expense_tracker.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTests {
+
+	@Test
+	void idsAreUniqueAcrossThreads() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+
+		IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(generator.nextId()));
+
+		assertThat(ids).hasSize(200_000);
+	}
+
+	@Test
+	void idsSortInCreationOrderEvenWhenClockGoesBack() {
+		long[] clock = {SnowflakeIdGenerator.EPOCH_MILLIS + 10_000};
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3) {
+			@Override
+			protected long currentTimeMillis() {
+				return clock[0];
+			}
+		};
+
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			ids.add(generator.nextId());
+			if (i == 5_000) {
+				clock[0] -= 1_000; // NTP step backwards
+			}
+		}
+
+		assertThat(ids).isSorted();
+		assertThat(ids).doesNotHaveDuplicates();
+		assertThat(ids).allMatch(id -> id.matches("TX\\d{19}"));
+	}
+
+	@Test
+	void differentNodesNeverCollide() {
+		long[] clock = {SnowflakeIdGenerator.EPOCH_MILLIS};
+		SnowflakeIdGenerator nodeA = new SnowflakeIdGenerator(1) {
+			@Override
+			protected long currentTimeMillis() {
+				return clock[0];
+			}
+		};
+		SnowflakeIdGenerator nodeB = new SnowflakeIdGenerator(2) {
+			@Override
+			protected long currentTimeMillis() {
+				return clock[0];
+			}
+		};
+
+		assertThat(nodeA.nextId()).isNotEqualTo(nodeB.nextId());
+	}
+
+	@Test
+	void rejectsNodeIdOutOfRange() {
+		assertThatThrownBy(() -> new SnowflakeIdGenerator(1024))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,59 @@
+package com.fintech.expense_tracker.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTests {
+
+	@Test
+	void percentilesStayWithinRelativeAccuracy() {
+		Random random = new Random(42);
+		QuantileSketch sketch = new QuantileSketch();
+		double[] amounts = new double[50_000];
+		for (int i = 0; i < amounts.length; i++) {
+			amounts[i] = 0.01 + Math.round(Math.exp(random.nextGaussian() * 2 + 5) * 100) / 100.0;
+			sketch.add(amounts[i]);
+		}
+		Arrays.sort(amounts);
+
+		for (double q : new double[] {0.5, 0.9, 0.99}) {
+			double exact = amounts[(int) Math.floor(q * (amounts.length - 1))];
+			assertThat(sketch.quantile(q))
+					.isCloseTo(exact, within(exact * QuantileSketch.RELATIVE_ACCURACY));
+		}
+	}
+
+	@Test
+	void mergedDeltasMatchOneSketch() {
+		QuantileSketch whole = new QuantileSketch();
+		QuantileSketch dayOne = new QuantileSketch();
+		QuantileSketch dayTwo = new QuantileSketch();
+		for (int i = 1; i <= 1_000; i++) {
+			whole.add(i);
+			(i % 2 == 0 ? dayOne : dayTwo).add(i);
+		}
+
+		dayOne.merge(dayTwo);
+
+		assertThat(dayOne.getCount()).isEqualTo(whole.getCount());
+		assertThat(dayOne.quantile(0.9)).isEqualTo(whole.quantile(0.9));
+	}
+
+	@Test
+	void removeUndoesAddAndSurvivesSerialization() {
+		QuantileSketch sketch = new QuantileSketch();
+		sketch.add(100);
+		sketch.add(200);
+		sketch.remove(200);
+
+		QuantileSketch restored = QuantileSketch.fromBytes(sketch.toBytes());
+
+		assertThat(restored.getCount()).isEqualTo(1);
+		assertThat(restored.quantile(0.99)).isCloseTo(100, within(1.0));
+	}
+}
@@ -0,0 +1,107 @@
+package com.fintech.expense_tracker.stats;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatisticsCacheTests {
+
+	private static final StatisticsQuery QUERY = new StatisticsQuery(null, null, null, null);
+
+	private StatisticsCache cache(long maxStaleMs) {
+		StatisticsCache cache = new StatisticsCache();
+		ReflectionTestUtils.setField(cache, "maxStaleMs", maxStaleMs);
+		return cache;
+	}
+
+	@Test
+	void concurrentRequestsShareOneRecomputation() throws Exception {
+		StatisticsCache cache = cache(0);
+		AtomicInteger computations = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int threads = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Map<String, Object>>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> cache.get(QUERY, () -> {
+					computations.incrementAndGet();
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return Map.of("totalTransactions", 1L);
+				})));
+			}
+			Thread.sleep(200);
+			release.countDown();
+			for (Future<Map<String, Object>> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).containsEntry("totalTransactions", 1L);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(computations).hasValue(1);
+	}
+
+	@Test
+	void writeForcesRecomputeOnceStalenessWindowIsOver() throws Exception {
+		StatisticsCache cache = cache(100);
+		AtomicInteger computations = new AtomicInteger();
+
+		cache.get(QUERY, () -> Map.of("n", computations.incrementAndGet()));
+		cache.get(QUERY, () -> Map.of("n", computations.incrementAndGet()));
+		assertThat(computations).hasValue(1);
+
+		cache.invalidate();
+		Thread.sleep(200);
+		assertThat(cache.get(QUERY, () -> Map.of("n", computations.incrementAndGet()))).containsEntry("n", 2);
+		assertThat(cache.getMetrics()).containsEntry("hits", 1L).containsEntry("recomputes", 2L);
+	}
+
+	@Test
+	void currentVersionSnapshotExpiresWithoutLocalWrites() throws Exception {
+		// Writes through other instances never move this instance's version
+		StatisticsCache cache = cache(100);
+		AtomicInteger computations = new AtomicInteger();
+
+		cache.get(QUERY, () -> Map.of("n", computations.incrementAndGet()));
+		Thread.sleep(200);
+		assertThat(cache.get(QUERY, () -> Map.of("n", computations.incrementAndGet()))).containsEntry("n", 2);
+	}
+
+	@Test
+	void staleSnapshotIsServedWithinWindow() {
+		StatisticsCache cache = cache(60_000);
+		AtomicInteger computations = new AtomicInteger();
+
+		cache.get(QUERY, () -> Map.of("n", computations.incrementAndGet()));
+		cache.invalidate();
+		assertThat(cache.get(QUERY, () -> Map.of("n", computations.incrementAndGet()))).containsEntry("n", 1);
+		assertThat(cache.getMetrics()).containsEntry("staleHits", 1L);
+	}
+
+	@Test
+	void failedComputationIsNotCached() {
+		StatisticsCache cache = cache(60_000);
+
+		assertThatThrownBy(() -> cache.get(QUERY, () -> {
+			throw new IllegalStateException("database down");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(cache.get(QUERY, () -> Map.of("n", 1))).containsEntry("n", 1);
+	}
+}